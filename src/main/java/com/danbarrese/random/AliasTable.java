@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Vose's alias table over a fixed set of weights, for picking an index in constant time no matter how many weights
+ * there are.  Built once per set of weights; each pick costs one random double.
+ */
+final class AliasTable {
+
+    private static final int BATCH = 256;
+
+    private final double[] probability;
+    private final int[] alias;
+
+    /**
+     * @param weights finite, non-negative weights, at least one of them positive.  They do not need to sum to 1.
+     * @throws IllegalArgumentException if the weights are not as above.
+     */
+    AliasTable(double[] weights) {
+        int n = weights.length;
+        double total = 0;
+        for (double w : weights) {
+            Validate.isTrue(w >= 0 && !Double.isInfinite(w), "Weights must be finite and non-negative: %s", w);
+            total += w;
+        }
+        Validate.isTrue(total > 0 && !Double.isInfinite(total), "Weights must have a finite, positive sum: %s", total);
+        probability = new double[n];
+        alias = new int[n];
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int s = small[--smallCount];
+            int l = large[--largeCount];
+            probability[s] = scaled[s];
+            alias[s] = l;
+            scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+            if (scaled[l] < 1.0) {
+                small[smallCount++] = l;
+            } else {
+                large[largeCount++] = l;
+            }
+        }
+        // whatever is left is 1 give or take rounding error
+        while (largeCount > 0) {
+            int l = large[--largeCount];
+            probability[l] = 1.0;
+            alias[l] = l;
+        }
+        while (smallCount > 0) {
+            int s = small[--smallCount];
+            probability[s] = 1.0;
+            alias[s] = s;
+        }
+    }
+
+    int size() {
+        return probability.length;
+    }
+
+    /**
+     * @param p a probability in [0, 1).
+     * @return the index picked by p.
+     */
+    int pick(double p) {
+        double x = p * probability.length;
+        int column = Math.min((int) x, probability.length - 1);
+        return x - column < probability[column] ? column : alias[column];
+    }
+
+    /**
+     * Fills the array with picked indexes, drawing the random doubles in batches.
+     *
+     * @return the given array.
+     */
+    int[] pick(BaseGenerator g, int[] out) {
+        Validate.notNull(out);
+        double[] draws = new double[Math.min(out.length, BATCH)];
+        for (int from = 0; from < out.length; from += draws.length) {
+            if (out.length - from < draws.length) {
+                draws = new double[out.length - from];
+            }
+            g.fillDoubles(draws, 0.0, 1.0);
+            for (int i = 0; i < draws.length; i++) {
+                out[from + i] = pick(draws[i]);
+            }
+        }
+        return out;
+    }
+
+}
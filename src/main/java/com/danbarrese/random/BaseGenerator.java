@@ -16,40 +16,71 @@
 package com.danbarrese.random;
 
 import com.danbarrese.random.config.GeneratorConfig;
+import com.danbarrese.random.config.ValueProvider;
+import com.danbarrese.random.source.RandomSource;
+import com.danbarrese.random.source.RandomSources;
+import java.io.Closeable;
 import java.io.IOException;
-import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
-import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
-import java.util.Calendar;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.Random;
 import java.util.Set;
+import java.util.TimeZone;
 import java.util.concurrent.Callable;
-import java.util.concurrent.atomic.AtomicLong;
-import org.apache.commons.io.IOUtils;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
 import org.apache.commons.lang3.Validate;
-import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
 /**
  * Responsible for generation of random Strings, Longs, ints, etc.
+ * <p>
+ * A generator is meant to be used by one thread at a time.  To share one generator between threads, set {@link
+ * GeneratorConfig#threadSafe} before using it: each thread then draws from its own {@link RandomSource#split() split}
+ * of the generator's random source and formats dates with its own copy of {@link GeneratorConfig#sdf}.  ID
+ * sequences and the {@link Dictionary shared dictionaries} are always safe to share; see {@link IdRegistry} for how
+ * IDs are handed out when several threads ask for them.
+ * <p>
+ * Output is reproducible when {@link GeneratorConfig#seed} and {@link GeneratorConfig#referenceTimeMillis} are both
+ * set.  ID sequences are the exception: they count up across the generator and all of its {@link #fork() forks}, and
+ * across runs when {@link GeneratorConfig#idFile} is set; a generator with an ID file should be {@link #close()
+ * closed} when done with.
  */
 @SuppressWarnings({"unchecked", "unused", "FieldCanBeLocal"})
-public class BaseGenerator {
+public class BaseGenerator implements Closeable {
+
+    private static final int MAX_PARSED_DATES = 1024;
+    private static final String DEFAULT_SDF_PATTERN = new GeneratorConfig().sdf.toPattern();
 
     protected final GeneratorConfig config;
-    private final Random random;
-    private final Map<String, AtomicLong> idGenerator;
-    private final DateTimeFormatter dateTimeFormatter;
-    private Set<String> dictionary;
+    private final long seed;
+    private final long referenceTimeMillis;
+    private final RandomSource random;
+    private final ThreadLocal<RandomSource> threadRandom;
+    private final boolean forked;
+    private final IdRegistry idGenerator;
+    private final AtomicReference<DateParser> dateParser;
+    private final ThreadLocal<SimpleDateFormat> threadDateFormat;
+    private final AtomicReference<Dictionary> dictionary;
 
     // ------------------------
     // constructors
@@ -61,64 +92,61 @@ public class BaseGenerator {
 
     public BaseGenerator(GeneratorConfig config) {
         this.config = config;
-        random = new Random(System.currentTimeMillis());
-        idGenerator = new HashMap<>();
-        dateTimeFormatter = DateTimeFormat.forPattern(config.DEFAULT_DATE_FORMAT);
+        long now = System.currentTimeMillis();
+        seed = config.seed != null ? config.seed : now;
+        referenceTimeMillis = config.referenceTimeMillis != null ? config.referenceTimeMillis : now;
+        random = config.randomSourceFactory.create(seed);
+        threadRandom = _splitPerThread(random);
+        forked = false;
+        idGenerator = _openIdRegistry(config);
+        dateParser = new AtomicReference<>();
+        threadDateFormat = ThreadLocal.withInitial(() -> (SimpleDateFormat) config.sdf.clone());
+        dictionary = new AtomicReference<>();
+    }
+
+    /**
+     * Creates a fork of the given generator: it shares the parent's configuration, ID sequences and dictionary, but
+     * draws from its own random source.
+     */
+    protected BaseGenerator(BaseGenerator parent, RandomSource random) {
+        this.config = parent.config;
+        this.seed = parent.seed;
+        this.referenceTimeMillis = parent.referenceTimeMillis;
+        this.random = random;
+        this.threadRandom = _splitPerThread(random);
+        this.forked = true;
+        this.idGenerator = parent.idGenerator;
+        this.dateParser = parent.dateParser;
+        this.threadDateFormat = parent.threadDateFormat;
+        this.dictionary = parent.dictionary;
     }
 
     // ------------------------
     // public methods
     // ------------------------
 
+    /**
+     * @return a random value from the provider registered for the type in {@link GeneratorConfig#valueProviders}.
+     * Object generation does not call this method, it looks providers up itself, so to change what is generated for a
+     * type register a provider for it rather than overriding this method.
+     * @throws IllegalArgumentException if no provider is registered for the type.
+     */
     public <T> T random(Class<T> type) {
         Validate.notNull(type);
-        if (type.equals(String.class)) {
-            return (T) randomWords(1);
-        } else if (type.equals(Integer.class) || type.equals(int.class)) {
-            return (T) randomInt();
-        } else if (type.equals(Long.class) || type.equals(long.class)) {
-            return (T) randomLong();
-        } else if (type.equals(Double.class) || type.equals(double.class)) {
-            return (T) randomDouble();
-        } else if (type.equals(Date.class)) {
-            return (T) randomDate();
-        } else if (type.equals(Boolean.class) || type.equals(boolean.class)) {
-            return (T) randomBoolean();
-        } else if (type.equals(Character.class) || type.equals(char.class)) {
-            return (T) randomChar();
-        } else if (type.equals(BigDecimal.class)) {
-            return (T) randomBigDecimal();
-        } else if (type.equals(Serializable.class)) {
-            return (T) nextId(type);
-        } else {
+        ValueProvider<?> provider = config.valueProviders.get(type);
+        if (provider == null) {
             throw new IllegalArgumentException("Don't know how to generate a random " + type.getName());
         }
+        return (T) provider.next(this);
     }
 
-    @SuppressWarnings("RedundantIfStatement")
+    /**
+     * @return true if a provider is registered for the type in {@link GeneratorConfig#valueProviders}.  Object
+     * generation does not call this method, so overriding it does not change which types are generated by a provider.
+     */
     public <T> boolean isBaseType(Class<T> type) {
         Validate.notNull(type);
-        if (type.equals(String.class)) {
-            return true;
-        } else if (type.equals(Integer.class) || type.equals(int.class)) {
-            return true;
-        } else if (type.equals(Long.class) || type.equals(long.class)) {
-            return true;
-        } else if (type.equals(Double.class) || type.equals(double.class)) {
-            return true;
-        } else if (type.equals(Date.class)) {
-            return true;
-        } else if (type.equals(Boolean.class) || type.equals(boolean.class)) {
-            return true;
-        } else if (type.equals(Character.class) || type.equals(char.class)) {
-            return true;
-        } else if (type.equals(BigDecimal.class)) {
-            return true;
-        } else if (type.equals(Serializable.class)) {
-            return true;
-        } else {
-            return false;
-        }
+        return config.valueProviders.get(type) != null;
     }
 
     public boolean isBaseType(Object o) {
@@ -138,11 +166,7 @@ public class BaseGenerator {
         if (len == 0) {
             return "";
         }
-        char[] str = new char[len];
-        for (int i = 0; i < len; i++) {
-            str[i] = randomChar();
-        }
-        return new String(str);
+        return _randomString(config.CHARACTER_SET, len);
     }
 
     public Set<String> randomEmails(int count) {
@@ -165,11 +189,7 @@ public class BaseGenerator {
         if (len == 0) {
             return "";
         }
-        char[] str = new char[len];
-        for (int i = 0; i < len; i++) {
-            str[i] = randomEmailChar();
-        }
-        return new String(str);
+        return _randomString(config.EMAIL_CHAR_LIST, len);
     }
 
     public Character randomEmailChar() {
@@ -183,7 +203,14 @@ public class BaseGenerator {
         if (tryOdds(config.DEFAULT_CHANCE_OF_NULL_CHAR)) {
             return null;
         }
-        return config.CHARACTER_SET.charAt(randomInt(0, config.CHARACTER_SET.length() - 1));
+        return nextChar();
+    }
+
+    /**
+     * Like {@link #randomChar()}, but never null.
+     */
+    public char nextChar() {
+        return config.CHARACTER_SET.charAt(nextInt(0, config.CHARACTER_SET.length() - 1));
     }
 
     public Integer randomInt() {
@@ -194,13 +221,26 @@ public class BaseGenerator {
         if (tryOdds(config.DEFAULT_CHANCE_OF_NULL_INT)) {
             return null;
         }
+        return nextInt(lowerBound, upperBound);
+    }
+
+    /**
+     * Like {@link #randomInt()}, but never null.
+     */
+    public int nextInt() {
+        return nextInt(config.DEFAULT_INT_MIN, config.DEFAULT_INT_MAX);
+    }
+
+    /**
+     * Like {@link #randomInt(int, int)}, but never null.
+     */
+    public int nextInt(int lowerBound, int upperBound) {
         Validate.isTrue(upperBound >= lowerBound);
         int i = upperBound - lowerBound + 1;
-        if (upperBound >= 0 && i <= 0) {
-            long l = randomLong(lowerBound, upperBound);
-            return (int) l;
+        if (i <= 0) {
+            return (int) nextLong(lowerBound, upperBound);
         }
-        return random.nextInt(i) + lowerBound;
+        return _random().nextInt(i) + lowerBound;
     }
 
     public Set<Integer> randomIntsDistinct(int lowerBound, int upperBound, int count) {
@@ -221,12 +261,26 @@ public class BaseGenerator {
         if (tryOdds(config.DEFAULT_CHANCE_OF_NULL_LONG)) {
             return null;
         }
+        return nextLong(lowerBound, upperBound);
+    }
+
+    /**
+     * Like {@link #randomLong()}, but never null.
+     */
+    public long nextLong() {
+        return nextLong(config.DEFAULT_LONG_MIN, config.DEFAULT_LONG_MAX);
+    }
+
+    /**
+     * Like {@link #randomLong(long, long)}, but never null.
+     */
+    public long nextLong(long lowerBound, long upperBound) {
         Validate.isTrue(upperBound >= lowerBound);
         long l = upperBound - lowerBound + 1;
         if (upperBound >= 0 && l < 0) {
             throw new IllegalStateException("numeric overflow");
         }
-        return _nextLong(l) + lowerBound;
+        return _nextLong(_random(), l) + lowerBound;
     }
 
     public Set<Long> randomLongsDistinct(long lowerBound, long upperBound, long count) {
@@ -243,20 +297,190 @@ public class BaseGenerator {
         return randomDouble(config.DEFAULT_DOUBLE_MIN, config.DEFAULT_DOUBLE_MAX);
     }
 
+    /**
+     * Like {@link #randomDouble()}, but never null.
+     */
+    public double nextDouble() {
+        return nextDouble(config.DEFAULT_DOUBLE_MIN, config.DEFAULT_DOUBLE_MAX);
+    }
+
     public BigDecimal randomBigDecimal() {
         return BigDecimal.valueOf(randomDouble(config.DEFAULT_DOUBLE_MIN, config.DEFAULT_DOUBLE_MAX));
     }
 
     public Double randomProbability() {
-        return random.nextDouble();
+        return nextProbability();
+    }
+
+    /**
+     * Like {@link #randomProbability()}, but unboxed.
+     */
+    public double nextProbability() {
+        return _random().nextDouble();
     }
 
     public Double randomDouble(double lowerBound, double upperBound) {
         if (tryOdds(config.DEFAULT_CHANCE_OF_NULL_DOUBLE)) {
             return null;
         }
+        return nextDouble(lowerBound, upperBound);
+    }
+
+    /**
+     * Like {@link #randomDouble(double, double)}, but never null.
+     */
+    public double nextDouble(double lowerBound, double upperBound) {
+        Validate.isTrue(upperBound >= lowerBound);
+        return lowerBound + (upperBound - lowerBound) * _random().nextDouble();
+    }
+
+    /**
+     * Fills the array with ints in [lowerBound, upperBound].  The bounds are checked once, and no value is ever null.
+     *
+     * @return the given array.
+     */
+    public int[] fillInts(int[] dst, int lowerBound, int upperBound) {
+        Validate.notNull(dst);
+        Validate.isTrue(upperBound >= lowerBound);
+        RandomSource r = _random();
+        int bound = upperBound - lowerBound + 1;
+        if (bound <= 0) {
+            long longBound = (long) upperBound - lowerBound + 1;
+            for (int i = 0; i < dst.length; i++) {
+                dst[i] = (int) (_nextLong(r, longBound) + lowerBound);
+            }
+        } else {
+            for (int i = 0; i < dst.length; i++) {
+                dst[i] = r.nextInt(bound) + lowerBound;
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * Fills the array with longs in [lowerBound, upperBound].  The bounds are checked once, and no value is ever null.
+     *
+     * @return the given array.
+     */
+    public long[] fillLongs(long[] dst, long lowerBound, long upperBound) {
+        Validate.notNull(dst);
+        Validate.isTrue(upperBound >= lowerBound);
+        long bound = upperBound - lowerBound + 1;
+        if (upperBound >= 0 && bound < 0) {
+            throw new IllegalStateException("numeric overflow");
+        }
+        RandomSource r = _random();
+        for (int i = 0; i < dst.length; i++) {
+            dst[i] = _nextLong(r, bound) + lowerBound;
+        }
+        return dst;
+    }
+
+    /**
+     * Fills the array with doubles in [lowerBound, upperBound).  The bounds are checked once, and no value is ever
+     * null.
+     *
+     * @return the given array.
+     */
+    public double[] fillDoubles(double[] dst, double lowerBound, double upperBound) {
+        Validate.notNull(dst);
         Validate.isTrue(upperBound >= lowerBound);
-        return lowerBound + (upperBound - lowerBound) * random.nextDouble();
+        RandomSource r = _random();
+        double range = upperBound - lowerBound;
+        for (int i = 0; i < dst.length; i++) {
+            dst[i] = lowerBound + range * r.nextDouble();
+        }
+        return dst;
+    }
+
+    /**
+     * Fills the array with characters from {@link GeneratorConfig#CHARACTER_SET}.
+     *
+     * @return the given array.
+     */
+    public char[] fillChars(char[] dst) {
+        Validate.notNull(dst);
+        _fillChars(_random(), config.CHARACTER_SET.toCharArray(), dst, 0, dst.length);
+        return dst;
+    }
+
+    /**
+     * Fills the array with strings of {@link GeneratorConfig#CHARACTER_SET} characters, with lengths in
+     * [{@link GeneratorConfig#DEFAULT_STRING_LENGTH_MIN}, {@link GeneratorConfig#DEFAULT_STRING_LENGTH_MAX}].
+     *
+     * @return the given array.
+     */
+    public String[] fillStrings(String[] dst) {
+        return fillStrings(dst, config.DEFAULT_STRING_LENGTH_MIN, config.DEFAULT_STRING_LENGTH_MAX);
+    }
+
+    /**
+     * Fills the array with strings of {@link GeneratorConfig#CHARACTER_SET} characters, with lengths in [minLength,
+     * maxLength].  No string is ever null.
+     *
+     * @return the given array.
+     */
+    public String[] fillStrings(String[] dst, int minLength, int maxLength) {
+        Validate.notNull(dst);
+        Validate.isTrue(minLength >= 0);
+        Validate.isTrue(maxLength >= minLength);
+        RandomSource r = _random();
+        char[] characters = config.CHARACTER_SET.toCharArray();
+        int lengthBound = maxLength - minLength + 1;
+        char[] buffer = new char[maxLength];
+        for (int i = 0; i < dst.length; i++) {
+            int len = r.nextInt(lengthBound) + minLength;
+            _fillChars(r, characters, buffer, 0, len);
+            dst[i] = new String(buffer, 0, len);
+        }
+        return dst;
+    }
+
+    /**
+     * @return a stream of count ints in [lowerBound, upperBound], drawn from this generator's random source.  The
+     * stream may be run in parallel: each part it is split into draws from its own split of the source.
+     */
+    public IntStream ints(long count, int lowerBound, int upperBound) {
+        Validate.isTrue(count >= 0);
+        Validate.isTrue(upperBound >= lowerBound);
+        RandomSource r = _random();
+        int bound = upperBound - lowerBound + 1;
+        if (bound <= 0) {
+            long longBound = (long) upperBound - lowerBound + 1;
+            return StreamSupport.intStream(new RandomSpliterators.Ints(r, 0, count,
+                    s -> (int) (_nextLong(s, longBound) + lowerBound)), false);
+        }
+        return StreamSupport.intStream(new RandomSpliterators.Ints(r, 0, count,
+                s -> s.nextInt(bound) + lowerBound), false);
+    }
+
+    /**
+     * @return a stream of count longs in [lowerBound, upperBound], drawn from this generator's random source.  The
+     * stream may be run in parallel: each part it is split into draws from its own split of the source.
+     */
+    public LongStream longs(long count, long lowerBound, long upperBound) {
+        Validate.isTrue(count >= 0);
+        Validate.isTrue(upperBound >= lowerBound);
+        long bound = upperBound - lowerBound + 1;
+        if (upperBound >= 0 && bound < 0) {
+            throw new IllegalStateException("numeric overflow");
+        }
+        RandomSource r = _random();
+        return StreamSupport.longStream(new RandomSpliterators.Longs(r, 0, count,
+                s -> _nextLong(s, bound) + lowerBound), false);
+    }
+
+    /**
+     * @return a stream of count doubles in [lowerBound, upperBound), drawn from this generator's random source.  The
+     * stream may be run in parallel: each part it is split into draws from its own split of the source.
+     */
+    public DoubleStream doubles(long count, double lowerBound, double upperBound) {
+        Validate.isTrue(count >= 0);
+        Validate.isTrue(upperBound >= lowerBound);
+        RandomSource r = _random();
+        double range = upperBound - lowerBound;
+        return StreamSupport.doubleStream(new RandomSpliterators.Doubles(r, 0, count,
+                s -> lowerBound + range * s.nextDouble()), false);
     }
 
     public Long nextId() {
@@ -265,7 +489,7 @@ public class BaseGenerator {
 
     public Long nextId(String arbitraryGeneratorName) {
         Validate.notNull(arbitraryGeneratorName);
-        return idGenerator.computeIfAbsent(arbitraryGeneratorName, s -> new AtomicLong(1)).getAndIncrement();
+        return idGenerator.next(arbitraryGeneratorName);
     }
 
     public Long nextId(Class<?> type) {
@@ -274,51 +498,100 @@ public class BaseGenerator {
     }
 
     public Date randomDate(String fromDate, String toDate) {
-        if (tryOdds(config.DEFAULT_CHANCE_OF_NULL_DATE)) {
-            return null;
-        }
         Validate.notNull(fromDate);
         Validate.notNull(toDate);
-        long lowerBound = dateTimeFormatter.parseDateTime(fromDate).getMillis();
-        DateTime upperBoundDateTime = dateTimeFormatter.parseDateTime(toDate);
-        long upperBound = upperBoundDateTime.getMillis();
-        long range = upperBound - lowerBound + 1;
-        return upperBoundDateTime.minus(randomLong(0, range)).toDate();
+        return randomDate(_parseDate(fromDate), _parseDate(toDate));
     }
 
     public Date randomDate(String fromDate) {
         Validate.notNull(fromDate);
-        DateTime now = new DateTime(new Date());
-        return randomDate(fromDate, now.toString(dateTimeFormatter));
+        return randomDate(_parseDate(fromDate), _now());
     }
 
     public Date randomDate() {
-        DateTime epoch = new DateTime(0L);
-        DateTime now = new DateTime(new Date());
-        return randomDate(epoch.toString(dateTimeFormatter), now.toString(dateTimeFormatter));
+        return randomDate(0L, _now());
     }
 
-    public Date randomDateInLastNDays(int n) {
-        Date temp = new Date();
-        Calendar c = Calendar.getInstance();
-        c.setTime(temp);
-        c.add(Calendar.DAY_OF_YEAR, randomInt(-1 * n, -1));
-        Date startDate = c.getTime();
+    /**
+     * @return a date in [fromMillis, toMillis], both in milliseconds since the epoch.
+     */
+    public Date randomDate(long fromMillis, long toMillis) {
+        if (tryOdds(config.DEFAULT_CHANCE_OF_NULL_DATE)) {
+            return null;
+        }
+        return new Date(nextLong(fromMillis, toMillis));
+    }
 
-        String startDateString = config.sdf.format(startDate);
+    public Date randomDateInLastNDays(int n) {
+        ZonedDateTime now = Instant.ofEpochMilli(_now()).atZone(config.zoneId);
+        long millis = now.plusDays(nextInt(-1 * n, -1)).toInstant().toEpochMilli();
+        SimpleDateFormat sdf = config.threadSafe || forked ? threadDateFormat.get() : config.sdf;
+        if (DEFAULT_SDF_PATTERN.equals(sdf.toPattern())) {
+            // same as formatting and parsing with the default pattern, which drops the milliseconds
+            return new Date(millis - Math.floorMod(millis, 1000L));
+        }
+        String startDateString = sdf.format(new Date(millis));
         try {
-            return config.sdf.parse(startDateString);
+            return sdf.parse(startDateString);
         } catch (ParseException e) {
             e.printStackTrace();
             throw new RuntimeException("Internal error formatting date during JUnit test.");
         }
     }
 
+    /**
+     * @return an instant between the epoch and now.
+     */
+    public Instant randomInstant() {
+        if (tryOdds(config.DEFAULT_CHANCE_OF_NULL_DATE)) {
+            return null;
+        }
+        return Instant.ofEpochMilli(nextLong(0L, _now()));
+    }
+
+    /**
+     * @return a date between the epoch and today, in {@link GeneratorConfig#zoneId}.
+     */
+    public LocalDate randomLocalDate() {
+        if (tryOdds(config.DEFAULT_CHANCE_OF_NULL_DATE)) {
+            return null;
+        }
+        long today = Instant.ofEpochMilli(_now()).atZone(config.zoneId).toLocalDate().toEpochDay();
+        return LocalDate.ofEpochDay(nextLong(0L, today));
+    }
+
+    /**
+     * @return a date and time between the epoch and now, in {@link GeneratorConfig#zoneId}.
+     */
+    public LocalDateTime randomLocalDateTime() {
+        if (tryOdds(config.DEFAULT_CHANCE_OF_NULL_DATE)) {
+            return null;
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(nextLong(0L, _now())), config.zoneId);
+    }
+
+    /**
+     * @return a date and time between the epoch and now, at the offset of {@link GeneratorConfig#zoneId}.
+     */
+    public OffsetDateTime randomOffsetDateTime() {
+        if (tryOdds(config.DEFAULT_CHANCE_OF_NULL_DATE)) {
+            return null;
+        }
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(nextLong(0L, _now())), config.zoneId);
+    }
+
     public Boolean randomBoolean() {
         if (tryOdds(config.DEFAULT_CHANCE_OF_NULL_BOOLEAN)) {
             return null;
         }
-        return randomInt(0, 1) == 1;
+        return nextBoolean();
+    }
+
+    /**
+     * Like {@link #randomBoolean()}, but never null.
+     */
+    public boolean nextBoolean() {
+        return _random().nextInt(2) == 1;
     }
 
     public <T> T choose(T... elements) {
@@ -390,15 +663,54 @@ public class BaseGenerator {
         }
     }
 
+    /**
+     * @return count distinct words from the dictionary, separated by spaces, or every word if the dictionary has
+     * fewer than count words.
+     */
     public String randomWords(int count) {
         Validate.isTrue(count > 0);
-        if (dictionary == null) {
-            _loadDictionary();
+        Dictionary d = _getDictionary();
+        RandomSource r = _random();
+        if (count == 1) {
+            return d.word(r.nextInt(d.size()));
         }
-        Set<String> words = choose(dictionary, count);
         StringBuilder s = new StringBuilder();
-        words.forEach(word -> s.append(word).append(" "));
-        return s.toString().trim();
+        for (int index : _distinctIndexes(r, d.size(), Math.min(count, d.size()))) {
+            if (s.length() > 0) {
+                s.append(' ');
+            }
+            s.append(d.word(index));
+        }
+        return s.toString();
+    }
+
+    /**
+     * Returns a generator that draws from a {@link RandomSource#split() split} of this generator's random source and
+     * shares everything else with it.  A fork is meant to be used by one thread, even in thread-safe mode, and formats
+     * dates with that thread's own copy of {@link GeneratorConfig#sdf}, so forks can run alongside each other.
+     */
+    public BaseGenerator fork() {
+        return new BaseGenerator(this, _splitRandom());
+    }
+
+    /**
+     * Releases the {@link GeneratorConfig#idFile ID file}, if any, so another generator or process can carry its
+     * sequences on.  Generators sharing a configuration share the file until the last of them is closed.  Closing a
+     * fork does nothing; close the generator it was forked from.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!forked) {
+            idGenerator.close();
+        }
+    }
+
+    /**
+     * @return the seed of this generator's random source, either {@link GeneratorConfig#seed} or the time the
+     * generator was created.
+     */
+    public long getSeed() {
+        return seed;
     }
 
     public String getDictionaryFileName() {
@@ -413,24 +725,120 @@ public class BaseGenerator {
     // protected methods
     // -------------------------------
 
-    @SuppressWarnings("SimplifiableIfStatement")
+    /**
+     * @return true with the given probability.  Zero odds, the default for every null chance, return before any
+     * validation or random draw; other odds cost one raw draw compared against an integer threshold.
+     */
     protected boolean tryOdds(double odds) {
-        Validate.isTrue(odds >= 0.0 && odds <= 1.0);
         if (odds == 0.0) {
             return false;
         }
-        return randomDouble(0.0, 1.0) <= odds;
+        Validate.isTrue(odds > 0.0 && odds <= 1.0);
+        // same as nextDouble() <= odds, on the 53 bits nextDouble() would use.
+        return (_random().nextLong() >>> 11) <= (long) (odds * 0x1.0p53);
     }
 
     protected void log(String s) {
         System.out.println(s);
     }
 
+    /**
+     * @return the time that dates are generated relative to, either {@link GeneratorConfig#referenceTimeMillis} or
+     * the time the generator was created when a seed is configured, otherwise the current time.
+     */
+    protected long _now() {
+        if (config.referenceTimeMillis != null || config.seed != null) {
+            return referenceTimeMillis;
+        }
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * @return a source for the stream at the given index of this generator's family of streams.  The same seed and
+     * index always give the same source.
+     */
+    protected RandomSource _randomSourceAt(long index) {
+        return config.randomSourceFactory.create(RandomSources.seedAt(seed, index));
+    }
+
+    protected RandomSource _splitRandom() {
+        synchronized (random) {
+            return random.split();
+        }
+    }
+
     // ------------------------
     // private methods
     // ------------------------
 
-    private Long _nextLong(long n) {
+    /**
+     * In thread-safe mode every thread gets its own stream, so threads never contend on a shared seed.
+     */
+    private RandomSource _random() {
+        return config.threadSafe && !forked ? threadRandom.get() : random;
+    }
+
+    /**
+     * Characters are drawn straight from the random source: a null character cannot be stored in a string, so the
+     * per-character null odds do not apply.
+     */
+    private String _randomString(String characters, int len) {
+        RandomSource r = _random();
+        int n = characters.length();
+        char[] str = new char[len];
+        for (int i = 0; i < len; i++) {
+            str[i] = characters.charAt(r.nextInt(n));
+        }
+        return new String(str);
+    }
+
+    private static void _fillChars(RandomSource random, char[] characters, char[] dst, int from, int to) {
+        for (int i = from; i < to; i++) {
+            dst[i] = characters[random.nextInt(characters.length)];
+        }
+    }
+
+    private static ThreadLocal<RandomSource> _splitPerThread(RandomSource random) {
+        return ThreadLocal.withInitial(() -> {
+            synchronized (random) {
+                return random.split();
+            }
+        });
+    }
+
+    /**
+     * Parses a date in {@link GeneratorConfig#DEFAULT_DATE_FORMAT} and {@link GeneratorConfig#zoneId}, remembering the
+     * result since the same bounds tend to be passed over and over.  The remembered results are dropped when the
+     * zone changes.
+     */
+    private long _parseDate(String date) {
+        DateParser p = dateParser.get();
+        if (p == null || !p.zoneId.equals(config.zoneId)) {
+            p = new DateParser(config.DEFAULT_DATE_FORMAT, config.zoneId);
+            dateParser.set(p);
+        }
+        Long millis = p.parsed.get(date);
+        if (millis == null) {
+            millis = p.formatter.parseDateTime(date).getMillis();
+            if (p.parsed.size() < MAX_PARSED_DATES) {
+                p.parsed.put(date, millis);
+            }
+        }
+        return millis;
+    }
+
+    private static IdRegistry _openIdRegistry(GeneratorConfig config) {
+        if (config.idFile == null) {
+            return new IdRegistry(config.idBlockSize);
+        }
+        try {
+            return IdRegistry.open(config.idFile, config.idBlockSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long _nextLong(RandomSource random, long n) {
         // error checking and 2^x checking removed for simplicity.
         long bits, val;
         do {
@@ -441,16 +849,53 @@ public class BaseGenerator {
         return val;
     }
 
-    private void _loadDictionary() {
-        dictionary = new HashSet<>();
-        try {
-            List<String> words = IOUtils.readLines(
-                    Thread.currentThread().getContextClassLoader().getResourceAsStream(getDictionaryFileName()),
-                    StandardCharsets.UTF_8);
-            dictionary.addAll(words);
-        } catch (IOException e) {
-            e.printStackTrace();
+    /**
+     * Floyd's algorithm: k distinct indexes in [0, n) with k draws, whatever the size of n.
+     */
+    private static int[] _distinctIndexes(RandomSource random, int n, int k) {
+        int[] indexes = new int[k];
+        Set<Integer> chosen = new HashSet<>(k * 2);
+        int i = 0;
+        for (int j = n - k; j < n; j++) {
+            int t = random.nextInt(j + 1);
+            if (!chosen.add(t)) {
+                t = j;
+                chosen.add(j);
+            }
+            indexes[i++] = t;
+        }
+        return indexes;
+    }
+
+    private Dictionary _getDictionary() {
+        Dictionary d = dictionary.get();
+        if (d == null || !d.name.equals(getDictionaryFileName())) {
+            try {
+                d = Dictionary.forName(getDictionaryFileName());
+            } catch (UncheckedIOException e) {
+                throw new IllegalStateException("Could not load dictionary: " + getDictionaryFileName(), e);
+            }
+            dictionary.set(d);
         }
+        return d;
+    }
+
+    // ------------------------
+    // nested classes
+    // ------------------------
+
+    private static final class DateParser {
+
+        final ZoneId zoneId;
+        final DateTimeFormatter formatter;
+        final ConcurrentMap<String, Long> parsed = new ConcurrentHashMap<>();
+
+        DateParser(String pattern, ZoneId zoneId) {
+            this.zoneId = zoneId;
+            this.formatter = DateTimeFormat.forPattern(pattern)
+                    .withZone(DateTimeZone.forTimeZone(TimeZone.getTimeZone(zoneId)));
+        }
+
     }
 
 }
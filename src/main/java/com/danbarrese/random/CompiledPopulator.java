@@ -0,0 +1,242 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random;
+
+import com.danbarrese.random.config.ValueProvider;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Populates instances of one class with a single composed {@link MethodHandle} instead of looping over the fields
+ * of a {@link GenerationPlan}.
+ * <p>
+ * Every field that is a primitive (generated unboxed), a boxed primitive, a {@link String}, a {@link Date} or one of
+ * the supported {@code java.time} types, or a {@link BigDecimal}, and every field with an override or a registered
+ * {@link ValueProvider}, is folded into one handle that calls the matching {@link BaseGenerator} method (or the
+ * override or provider) and writes the result straight into the field.  The JIT compiles that handle as one unit.
+ * Fields the populator cannot compile, such as nested objects and collections, are left in {@link #remainingSlots}
+ * for the reflective path.
+ */
+@SuppressWarnings({"unchecked"})
+public final class CompiledPopulator<T> {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType POPULATE_TYPE = MethodType.methodType(void.class, Object.class,
+            ObjectGenerator.class);
+
+    public final GenerationPlan<T> plan;
+    public final GenerationPlan.FieldSlot[] remainingSlots;
+
+    private final MethodHandle constructor;
+    private final MethodHandle populate;
+
+    private CompiledPopulator(GenerationPlan<T> plan,
+                              MethodHandle constructor,
+                              MethodHandle populate,
+                              GenerationPlan.FieldSlot[] remainingSlots) {
+        this.plan = plan;
+        this.constructor = constructor;
+        this.populate = populate;
+        this.remainingSlots = remainingSlots;
+    }
+
+    /**
+     * @return a populator for the given plan, or null if the class cannot be compiled (enums, collections, and
+     * classes without a public no-argument constructor).
+     */
+    public static <T> CompiledPopulator<T> compile(GenerationPlan<T> plan) throws IllegalAccessException {
+        if (plan.enumConstants != null
+                || Modifier.isAbstract(plan.type.getModifiers())
+                || Collection.class.isAssignableFrom(plan.type)
+                || Map.class.isAssignableFrom(plan.type)) {
+            return null;
+        }
+        Constructor<T> constructor;
+        try {
+            constructor = plan.type.getConstructor();
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+        MethodHandle newInstance = LOOKUP.unreflectConstructor(constructor)
+                .asType(MethodType.methodType(Object.class));
+
+        MethodHandle populate = MethodHandles.dropArguments(
+                MethodHandles.constant(Object.class, null).asType(MethodType.methodType(void.class)),
+                0, Object.class, ObjectGenerator.class);
+        List<GenerationPlan.FieldSlot> remaining = new ArrayList<>();
+        for (int i = plan.slots.length - 1; i >= 0; i--) {
+            GenerationPlan.FieldSlot slot = plan.slots[i];
+            MethodHandle writer = _compileSlot(slot);
+            if (writer == null) {
+                remaining.add(0, slot);
+            } else {
+                populate = MethodHandles.foldArguments(populate, writer);
+            }
+        }
+        return new CompiledPopulator<>(plan, newInstance, populate,
+                remaining.toArray(new GenerationPlan.FieldSlot[remaining.size()]));
+    }
+
+    public T newInstance() throws Exception {
+        try {
+            return (T) (Object) constructor.invokeExact();
+        } catch (Throwable e) {
+            throw _rethrow(e);
+        }
+    }
+
+    /**
+     * Writes every compiled field of {@code t}.  The fields in {@link #remainingSlots} are left untouched.
+     */
+    public void populate(T t, ObjectGenerator generator) throws Exception {
+        try {
+            populate.invokeExact((Object) t, generator);
+        } catch (Throwable e) {
+            throw _rethrow(e);
+        }
+    }
+
+    // ------------------------
+    // private methods
+    // ------------------------
+
+    /**
+     * @return a handle of type (Object, ObjectGenerator)void that generates and writes the slot's field, or null if
+     * the slot cannot be compiled.
+     */
+    private static MethodHandle _compileSlot(GenerationPlan.FieldSlot slot) throws IllegalAccessException {
+        if (Modifier.isStatic(slot.field.getModifiers())) {
+            return null;
+        }
+        MethodHandle value;
+        if (slot.override != null) {
+            value = _overrideValue(slot.override);
+        } else if (slot.provider != null && !slot.builtInProvider) {
+            value = _providerValue(slot.provider);
+        } else {
+            value = _randomValue(slot.rawType);
+        }
+        if (value == null) {
+            return null;
+        }
+        MethodHandle setter;
+        try {
+            setter = LOOKUP.unreflectSetter(slot.field);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+        setter = setter.asType(MethodType.methodType(void.class, Object.class, slot.rawType));
+        value = value.asType(MethodType.methodType(slot.rawType, ObjectGenerator.class));
+        return MethodHandles.filterArguments(setter, 1, value).asType(POPULATE_TYPE);
+    }
+
+    /**
+     * @return a handle of type (ObjectGenerator)? that generates a random value of the given type, or null if the
+     * type is not one the populator knows how to generate.
+     */
+    private static MethodHandle _randomValue(Class<?> type) throws IllegalAccessException {
+        try {
+            if (type == int.class) {
+                return _generatorMethod("nextInt", int.class);
+            } else if (type == long.class) {
+                return _generatorMethod("nextLong", long.class);
+            } else if (type == double.class) {
+                return _generatorMethod("nextDouble", double.class);
+            } else if (type == boolean.class) {
+                return _generatorMethod("nextBoolean", boolean.class);
+            } else if (type == char.class) {
+                return _generatorMethod("nextChar", char.class);
+            } else if (type == Integer.class) {
+                return _generatorMethod("randomInt", Integer.class);
+            } else if (type == Long.class) {
+                return _generatorMethod("randomLong", Long.class);
+            } else if (type == Double.class) {
+                return _generatorMethod("randomDouble", Double.class);
+            } else if (type == Boolean.class) {
+                return _generatorMethod("randomBoolean", Boolean.class);
+            } else if (type == Character.class) {
+                return _generatorMethod("randomChar", Character.class);
+            } else if (type == Date.class) {
+                return _generatorMethod("randomDate", Date.class);
+            } else if (type == Instant.class) {
+                return _generatorMethod("randomInstant", Instant.class);
+            } else if (type == LocalDate.class) {
+                return _generatorMethod("randomLocalDate", LocalDate.class);
+            } else if (type == LocalDateTime.class) {
+                return _generatorMethod("randomLocalDateTime", LocalDateTime.class);
+            } else if (type == OffsetDateTime.class) {
+                return _generatorMethod("randomOffsetDateTime", OffsetDateTime.class);
+            } else if (type == BigDecimal.class) {
+                return _generatorMethod("randomBigDecimal", BigDecimal.class);
+            } else if (type == String.class) {
+                MethodHandle randomWords = LOOKUP.findVirtual(ObjectGenerator.class, "randomWords",
+                        MethodType.methodType(String.class, int.class));
+                return MethodHandles.insertArguments(randomWords, 1, 1);
+            }
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+        return null;
+    }
+
+    private static MethodHandle _generatorMethod(String name, Class<?> returnType)
+            throws NoSuchMethodException, IllegalAccessException {
+        return LOOKUP.findVirtual(ObjectGenerator.class, name, MethodType.methodType(returnType));
+    }
+
+    private static MethodHandle _overrideValue(Callable<?> override) throws IllegalAccessException {
+        try {
+            MethodHandle call = LOOKUP.findVirtual(Callable.class, "call", MethodType.methodType(Object.class))
+                    .bindTo(override);
+            return MethodHandles.dropArguments(call, 0, ObjectGenerator.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandle _providerValue(ValueProvider<?> provider) throws IllegalAccessException {
+        try {
+            return LOOKUP.findVirtual(ValueProvider.class, "next",
+                    MethodType.methodType(Object.class, BaseGenerator.class))
+                    .bindTo(provider)
+                    .asType(MethodType.methodType(Object.class, ObjectGenerator.class));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Exception _rethrow(Throwable e) {
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return (Exception) e;
+    }
+
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A read-only word list with constant-time access by index.  Duplicate and blank lines are dropped when the list is
+ * loaded.
+ * <p>
+ * The words are kept as UTF-8 in a single off-heap buffer, with an index of where each word starts, and a {@link
+ * String} is only created when a word is picked.  Dictionaries loaded with {@link #forName(String)} are shared by
+ * every generator in the JVM, so each word list is loaded once no matter how many generators use it.
+ * <p>
+ * The bundled word lists are also compiled to a binary form at build time (see {@link DictionaryCompiler}), which
+ * {@link #forName(String)} maps or reads in one go instead of parsing the text.  The binary form is:
+ * <pre>
+ * int    magic ("RDIC")
+ * int    version
+ * int    word count n
+ * int[]  n + 1 offsets of each word into the bytes that follow, the last being their total length
+ * byte[] the words, UTF-8 encoded, back to back
+ * </pre>
+ */
+public final class Dictionary {
+
+    public static final String BINARY_EXTENSION = ".bin";
+    private static final int MAGIC = 0x52444943;
+    private static final int VERSION = 1;
+    private static final ConcurrentMap<String, Dictionary> REGISTRY = new ConcurrentHashMap<>();
+
+    public final String name;
+    private final ByteBuffer bytes;
+    private final int[] offsets;
+
+    public Dictionary(String name, Collection<String> words) {
+        Validate.notNull(name);
+        Validate.notNull(words);
+        LinkedHashSet<String> distinct = new LinkedHashSet<>();
+        for (String word : words) {
+            if (word != null && !word.trim().isEmpty()) {
+                distinct.add(word.trim());
+            }
+        }
+        ByteArrayOutputStream utf8 = new ByteArrayOutputStream();
+        int[] starts = new int[distinct.size() + 1];
+        int i = 0;
+        for (String word : distinct) {
+            starts[i++] = utf8.size();
+            byte[] encoded = word.getBytes(StandardCharsets.UTF_8);
+            utf8.write(encoded, 0, encoded.length);
+        }
+        starts[i] = utf8.size();
+        byte[] all = utf8.toByteArray();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(all.length);
+        buffer.put(all);
+        buffer.flip();
+        this.name = name;
+        this.bytes = buffer.asReadOnlyBuffer();
+        this.offsets = starts;
+    }
+
+    private Dictionary(String name, ByteBuffer bytes, int[] offsets) {
+        this.name = name;
+        this.bytes = bytes;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Returns the shared dictionary for the given classpath resource, loading it the first time it is asked for.
+     * When a compiled copy of the resource exists next to it, in the same directory or jar, that copy is loaded
+     * instead of the text.  A text resource found earlier on the classpath than the compiled copy, such as a user's
+     * own word list with the name of a bundled one, always wins.
+     *
+     * @throws UncheckedIOException if the resource cannot be read.
+     */
+    public static Dictionary forName(String resourceName) {
+        Validate.notNull(resourceName);
+        Dictionary d = REGISTRY.get(resourceName);
+        if (d == null) {
+            d = REGISTRY.computeIfAbsent(resourceName, name -> {
+                try {
+                    Dictionary binary = loadBinary(name);
+                    return binary != null ? binary : load(name);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        return d;
+    }
+
+    /**
+     * Loads a dictionary with one word per line from the context class loader.  Unlike {@link #forName(String)}, the
+     * result is not shared.
+     */
+    public static Dictionary load(String resourceName) throws IOException {
+        Validate.notNull(resourceName);
+        InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(resourceName);
+        if (in == null) {
+            throw new IOException("Dictionary not found on classpath: " + resourceName);
+        }
+        try {
+            List<String> lines = IOUtils.readLines(in, StandardCharsets.UTF_8);
+            return new Dictionary(resourceName, lines);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Loads the compiled copy of a text dictionary from the context class loader.  The copy is memory-mapped when it
+     * is a plain file, and read with a single bulk read otherwise (for example from inside a jar).
+     *
+     * @return null if there is no compiled copy of the resource, or if the text resource the class loader finds is
+     * not the one next to the compiled copy.
+     */
+    public static Dictionary loadBinary(String resourceName) throws IOException {
+        Validate.notNull(resourceName);
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        URL url = loader.getResource(binaryName(resourceName));
+        if (url == null) {
+            return null;
+        }
+        URL text = loader.getResource(resourceName);
+        if (text != null && !binaryName(text.toString()).equals(url.toString())) {
+            return null;
+        }
+        ByteBuffer buffer;
+        if ("file".equals(url.getProtocol())) {
+            try (FileChannel channel = FileChannel.open(Paths.get(url.toURI()), StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+        } else {
+            try (InputStream in = url.openStream()) {
+                byte[] all = IOUtils.toByteArray(in);
+                buffer = ByteBuffer.allocateDirect(all.length);
+                buffer.put(all);
+                buffer.flip();
+            }
+        }
+        return read(resourceName, buffer);
+    }
+
+    /**
+     * @return the name of the compiled copy of the given text dictionary.
+     */
+    public static String binaryName(String resourceName) {
+        String base = resourceName.endsWith(".txt")
+                ? resourceName.substring(0, resourceName.length() - ".txt".length())
+                : resourceName;
+        return base + BINARY_EXTENSION;
+    }
+
+    /**
+     * Reads a dictionary in the binary form.  The returned dictionary keeps using the given buffer.
+     */
+    public static Dictionary read(String name, ByteBuffer buffer) throws IOException {
+        ByteBuffer b = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        if (b.remaining() < 12 || b.getInt() != MAGIC) {
+            throw new IOException("Not a binary dictionary: " + name);
+        }
+        int version = b.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary dictionary version " + version + ": " + name);
+        }
+        int count = b.getInt();
+        int[] offsets = new int[count + 1];
+        b.asIntBuffer().get(offsets);
+        b.position(b.position() + 4 * offsets.length);
+        ByteBuffer words = b.slice().asReadOnlyBuffer();
+        if (words.remaining() != offsets[count]) {
+            throw new IOException("Truncated binary dictionary: " + name);
+        }
+        return new Dictionary(name, words, offsets);
+    }
+
+    /**
+     * Writes this dictionary in the binary form.
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(size());
+        for (int offset : offsets) {
+            data.writeInt(offset);
+        }
+        ByteBuffer words = bytes.duplicate();
+        byte[] chunk = new byte[Math.min(words.remaining(), 8192)];
+        while (words.hasRemaining()) {
+            int n = Math.min(words.remaining(), chunk.length);
+            words.get(chunk, 0, n);
+            data.write(chunk, 0, n);
+        }
+        data.flush();
+    }
+
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    public String word(int index) {
+        int start = offsets[index];
+        byte[] utf8 = new byte[offsets[index + 1] - start];
+        ByteBuffer word = bytes.duplicate();
+        word.position(start);
+        word.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+}
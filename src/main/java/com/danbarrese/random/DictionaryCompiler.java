@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Compiles text dictionaries to the binary form read by {@link Dictionary#loadBinary(String)}.  Run by the build
+ * against the classes directory, so every bundled {@code dict_*.txt} ships with a {@code dict_*.bin} next to it.
+ * <p>
+ * Usage: {@code DictionaryCompiler <directory>...}
+ */
+public final class DictionaryCompiler {
+
+    private DictionaryCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        for (String directory : args) {
+            File[] files = new File(directory).listFiles((dir, name) -> name.startsWith("dict_")
+                    && name.endsWith(".txt"));
+            if (files == null) {
+                throw new IOException("Not a directory: " + directory);
+            }
+            for (File text : files) {
+                File binary = new File(text.getParentFile(), Dictionary.binaryName(text.getName()));
+                compile(text, binary);
+            }
+        }
+    }
+
+    public static void compile(File text, File binary) throws IOException {
+        List<String> lines;
+        try (InputStream in = new FileInputStream(text)) {
+            lines = IOUtils.readLines(in, StandardCharsets.UTF_8);
+        }
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(binary))) {
+            new Dictionary(text.getName(), lines).write(out);
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random;
+
+import com.danbarrese.random.config.GeneratorConfig;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Limits on how much one call to {@link ObjectGenerator#generate(Class)} may generate, and what it has used so far.
+ * <p>
+ * The object asked for is always generated.  Past a limit, nested objects are left null and collections and maps stop
+ * growing, so a graph is cut short rather than failing.  Depth counts the objects being generated above the current
+ * one: the object asked for is at depth 0, its fields at depth 1, and so on.  Bytes are a rough shallow estimate:
+ * {@value #OBJECT_BYTES} per object plus {@value #REFERENCE_BYTES} per field, and {@value #ELEMENT_BYTES} per
+ * collection element or map entry, leaving out the contents of strings and other values.
+ */
+public final class GenerationBudget {
+
+    static final long OBJECT_BYTES = 16;
+    static final long REFERENCE_BYTES = 8;
+    static final long ELEMENT_BYTES = 16;
+
+    public final int maxDepth;
+    public final long maxObjects;
+    public final int[] maxCollectionSizeByDepth;
+    public final long maxBytes;
+
+    private final AtomicLong objects = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+
+    public GenerationBudget(int maxDepth, long maxObjects, int[] maxCollectionSizeByDepth, long maxBytes) {
+        Validate.isTrue(maxDepth > 0);
+        Validate.isTrue(maxObjects > 0);
+        Validate.isTrue(maxBytes > 0);
+        this.maxDepth = maxDepth;
+        this.maxObjects = maxObjects;
+        this.maxCollectionSizeByDepth = maxCollectionSizeByDepth == null ? null : maxCollectionSizeByDepth.clone();
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return a fresh budget with the limits in the given configuration, or null if it sets none.
+     */
+    public static GenerationBudget of(GeneratorConfig config) {
+        if (config.budgetMaxDepth == Integer.MAX_VALUE
+                && config.budgetMaxObjects == Long.MAX_VALUE
+                && config.budgetMaxCollectionSizeByDepth == null
+                && config.budgetMaxBytes == Long.MAX_VALUE) {
+            return null;
+        }
+        return new GenerationBudget(config.budgetMaxDepth, config.budgetMaxObjects,
+                config.budgetMaxCollectionSizeByDepth, config.budgetMaxBytes);
+    }
+
+    /**
+     * Counts one more object with the given number of fields.
+     *
+     * @return false if the object does not fit in the budget or is at or past {@link #maxDepth}, in which case it
+     * should not be generated unless it is the object asked for.
+     */
+    public boolean tryObject(int depth, int fieldCount) {
+        if (depth >= maxDepth || isExhausted()) {
+            return false;
+        }
+        objects.incrementAndGet();
+        bytes.addAndGet(OBJECT_BYTES + REFERENCE_BYTES * fieldCount);
+        return true;
+    }
+
+    /**
+     * Counts one more collection element or map entry.
+     *
+     * @return false if the element does not fit in the budget, in which case the collection should stop growing.
+     */
+    public boolean tryElement() {
+        if (isExhausted()) {
+            return false;
+        }
+        bytes.addAndGet(ELEMENT_BYTES);
+        return true;
+    }
+
+    /**
+     * @return the given size, capped to the limit for collections whose elements are at the given depth.  Entry
+     * {@code i} of {@link #maxCollectionSizeByDepth} caps the collections held by objects at depth {@code i}, so
+     * entry 0 caps the collections of the object asked for; depths past its end use its last entry.  Collections
+     * whose elements would be at or past {@link #maxDepth} are empty.
+     */
+    public int capCollectionSize(int size, int depth) {
+        if (depth >= maxDepth) {
+            return 0;
+        }
+        if (maxCollectionSizeByDepth == null || maxCollectionSizeByDepth.length == 0) {
+            return size;
+        }
+        int ownerDepth = Math.max(0, depth - 1);
+        int cap = maxCollectionSizeByDepth[Math.min(ownerDepth, maxCollectionSizeByDepth.length - 1)];
+        return Math.min(size, cap);
+    }
+
+    /**
+     * Forgets what has been used, so the budget can be spent again on the next object of a batch.
+     */
+    void reset() {
+        objects.set(0);
+        bytes.set(0);
+    }
+
+    public boolean isExhausted() {
+        return objects.get() >= maxObjects || bytes.get() >= maxBytes;
+    }
+
+    public long getObjects() {
+        return objects.get();
+    }
+
+    public long getBytes() {
+        return bytes.get();
+    }
+
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random;
+
+import com.danbarrese.random.config.FieldOverrides;
+import com.danbarrese.random.config.ValueProvider;
+import com.danbarrese.random.config.ValueProviders;
+import com.danbarrese.random.reflect.FieldWriter;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Everything {@link ObjectGenerator} needs to know about a class in order to generate it, resolved once.
+ * <p>
+ * A plan holds the fields of the class and its superclasses along with a {@link FieldWriter} for each, the type each
+ * field should be generated as, and the field override and {@link ValueProvider} bound to each field at the time the
+ * plan was built.  Plans are immutable apart from a memo of looked-up constructors, so they can be shared between
+ * threads.
+ */
+public final class GenerationPlan<T> {
+
+    public final Class<T> type;
+    public final T[] enumConstants;
+    public final FieldSlot[] slots;
+    /**
+     * The public no-arg constructor of the class, or null if it has none.
+     */
+    public final Constructor<T> noArgConstructor;
+
+    private final FieldOverrides overrides;
+    private final long overridesVersion;
+    private final ValueProviders providers;
+    private final long providersVersion;
+    private final FieldWriter.Factory writerFactory;
+    private final ConcurrentMap<List<Class<?>>, Constructor<T>> constructors;
+
+    GenerationPlan(Class<T> type,
+                   FieldOverrides overrides,
+                   ValueProviders providers,
+                   FieldWriter.Factory writerFactory) throws Exception {
+        this.type = type;
+        this.enumConstants = type.isEnum() ? type.getEnumConstants() : null;
+        this.overrides = overrides;
+        this.overridesVersion = overrides == null ? 0L : overrides.getVersion();
+        this.providers = providers;
+        this.providersVersion = providers.getVersion();
+        this.writerFactory = writerFactory;
+        this.constructors = new ConcurrentHashMap<>();
+        this.noArgConstructor = _resolveNoArgConstructor(type);
+        this.slots = type.isEnum() ? new FieldSlot[0] : _resolveSlots(type, overrides, providers, writerFactory);
+    }
+
+    /**
+     * @return true if this plan was built against the given overrides, providers and writer factory, and the
+     * overrides and providers have not changed since.
+     */
+    public boolean isCurrent(FieldOverrides overrides, ValueProviders providers, FieldWriter.Factory writerFactory) {
+        return this.writerFactory == writerFactory
+                && this.overrides == overrides
+                && (overrides == null || overridesVersion == overrides.getVersion())
+                && this.providers == providers
+                && providersVersion == providers.getVersion();
+    }
+
+    public Constructor<T> getConstructor(Class<?>[] constructorTypes) throws NoSuchMethodException {
+        List<Class<?>> key = Arrays.asList(constructorTypes);
+        Constructor<T> constructor = constructors.get(key);
+        if (constructor == null) {
+            constructor = type.getConstructor(constructorTypes);
+            constructors.putIfAbsent(key, constructor);
+        }
+        return constructor;
+    }
+
+    // ------------------------
+    // private methods
+    // ------------------------
+
+    private static <T> Constructor<T> _resolveNoArgConstructor(Class<T> type) {
+        try {
+            return type.getConstructor();
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static FieldSlot[] _resolveSlots(Class<?> type,
+                                             FieldOverrides overrides,
+                                             ValueProviders providers,
+                                             FieldWriter.Factory writerFactory) throws Exception {
+        List<FieldSlot> slots = new ArrayList<>();
+        Class<?> classOrSuperclass = type;
+        while (classOrSuperclass != null) {
+            for (Field field : classOrSuperclass.getDeclaredFields()) {
+                field.setAccessible(true);
+                Type fieldType = _resolveType(field);
+                slots.add(new FieldSlot(field,
+                        writerFactory.create(field),
+                        fieldType,
+                        _resolveOverride(type, field, fieldType, overrides),
+                        fieldType instanceof Class ? providers.get((Class<?>) fieldType) : null));
+            }
+            classOrSuperclass = classOrSuperclass.getSuperclass();
+        }
+        return slots.toArray(new FieldSlot[slots.size()]);
+    }
+
+    /**
+     * Collection and map fields keep their generic type so their elements can be generated, everything else is
+     * generated as its raw type.
+     */
+    private static Type _resolveType(Field field) {
+        Type genericType = field.getGenericType();
+        if (!(genericType instanceof ParameterizedType)) {
+            return field.getType();
+        }
+        Type[] typeArguments = ((ParameterizedType) genericType).getActualTypeArguments();
+        Class<?> rawType = field.getType();
+        boolean isCollection = typeArguments.length == 1 && (rawType.equals(List.class)
+                || rawType.equals(Set.class)
+                || rawType.equals(Deque.class)
+                || rawType.equals(Collection.class));
+        boolean isMap = typeArguments.length == 2 && rawType.equals(Map.class);
+        if ((isCollection || isMap) && _isResolvable(typeArguments)) {
+            return genericType;
+        }
+        return rawType;
+    }
+
+    private static boolean _isResolvable(Type[] types) {
+        for (Type type : types) {
+            if (type instanceof ParameterizedType) {
+                if (!_isResolvable(((ParameterizedType) type).getActualTypeArguments())) {
+                    return false;
+                }
+            } else if (!(type instanceof Class)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Overrides registered for the generated class win over those registered for its superclasses, and overrides
+     * registered for {@link Object} apply to every class.  A field with no field override takes the type override of
+     * its type, if any.
+     */
+    private static Callable<?> _resolveOverride(Class<?> type, Field field, Type fieldType, FieldOverrides overrides) {
+        if (overrides == null) {
+            return null;
+        }
+        Class<?> classUsedForOverrides = type;
+        while (classUsedForOverrides != null) {
+            Callable<?> c = overrides.get(classUsedForOverrides, field.getName());
+            if (c != null) {
+                return c;
+            }
+            classUsedForOverrides = classUsedForOverrides.getSuperclass();
+        }
+        return fieldType instanceof Class ? overrides.getTypeOverride((Class<?>) fieldType) : null;
+    }
+
+    // ------------------------
+    // nested classes
+    // ------------------------
+
+    /**
+     * A single field of a {@link GenerationPlan}.
+     */
+    public static final class FieldSlot {
+
+        public final Field field;
+        public final FieldWriter writer;
+        public final Type type;
+        public final Class<?> rawType;
+        public final Callable<?> override;
+        /**
+         * The provider of the field's value, or null if the field is not a value type.
+         */
+        public final ValueProvider<?> provider;
+        /**
+         * True if {@link #provider} is a built-in one, which may be swapped for an unboxed or compiled equivalent.
+         */
+        public final boolean builtInProvider;
+
+        FieldSlot(Field field, FieldWriter writer, Type type, Callable<?> override, ValueProvider<?> provider) {
+            this.field = field;
+            this.writer = writer;
+            this.type = type;
+            this.rawType = field.getType();
+            this.override = override;
+            this.provider = provider;
+            this.builtInProvider = ValueProviders.isBuiltIn(rawType, provider);
+        }
+
+    }
+
+}
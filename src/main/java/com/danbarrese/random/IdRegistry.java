@@ -0,0 +1,264 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UTFDataFormatException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Named ID sequences that can be used from any number of threads at once.
+ * <p>
+ * Each thread leases a block of IDs at a time from the shared counter of a sequence and hands them out from the
+ * block, so threads only touch shared state once per block.  IDs are unique across threads and count up within a
+ * thread, and a single thread sees 1, 2, 3 and so on.  When several threads share a sequence the IDs they get
+ * interleave, and the unused rest of a block is skipped when its thread stops asking for IDs.
+ * <p>
+ * A registry {@link #open(Path, int) opened} on a file carries on from where the last registry on that file stopped,
+ * so IDs do not collide across runs.  The file is an append-only log of the end of every block leased, written before
+ * any ID of the block is handed out, which keeps the file off the path of all but one ID per block.  Opening the
+ * file compacts it to the last entry of each sequence.  Only one registry may use a file at a time: opening a file
+ * that is already open in this process returns the registry already using it, and a lock file next to it keeps
+ * other processes out.
+ */
+public final class IdRegistry implements Closeable {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    /**
+     * The registries open on a file in this process, by absolute path.  Guards {@link #references}.
+     */
+    private static final Map<Path, IdRegistry> OPEN = new HashMap<>();
+
+    private final int blockSize;
+    private final ConcurrentMap<String, Sequence> sequences;
+    private final Map<String, Long> resumeFrom;
+    private final Path file;
+    private final FileChannel lock;
+    private final FileChannel journal;
+    private int references;
+
+    public IdRegistry() {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    public IdRegistry(int blockSize) {
+        this(blockSize, new HashMap<>(), null, null, null);
+    }
+
+    private IdRegistry(int blockSize, Map<String, Long> resumeFrom, Path file, FileChannel lock, FileChannel journal) {
+        Validate.isTrue(blockSize > 0);
+        this.blockSize = blockSize;
+        this.sequences = new ConcurrentHashMap<>();
+        this.resumeFrom = resumeFrom;
+        this.file = file;
+        this.lock = lock;
+        this.journal = journal;
+        this.references = 1;
+    }
+
+    /**
+     * Opens a registry that resumes every sequence recorded in the given file, and records its own leases there.  The
+     * file is created if it does not exist.  If the file is already open in this process, the registry using it is
+     * returned instead, keeping the block size it was opened with; every call must be matched by a {@link #close()}.
+     *
+     * @throws IOException if another process is using the file.
+     */
+    public static IdRegistry open(Path file, int blockSize) throws IOException {
+        Validate.notNull(file);
+        Validate.isTrue(blockSize > 0);
+        Path path = file.toAbsolutePath().normalize();
+        synchronized (OPEN) {
+            IdRegistry registry = OPEN.get(path);
+            if (registry != null) {
+                registry.references++;
+                return registry;
+            }
+            registry = _open(path, blockSize);
+            OPEN.put(path, registry);
+            return registry;
+        }
+    }
+
+    /**
+     * @return the next ID of the named sequence, starting at 1.
+     */
+    public long next(String name) {
+        Sequence sequence = sequences.get(name);
+        if (sequence == null) {
+            sequence = sequences.computeIfAbsent(name, Sequence::new);
+        }
+        return sequence.next();
+    }
+
+    /**
+     * Releases one {@link #open(Path, int) opening} of a registry on a file, and closes the file and its lock once
+     * every opening has been released.  IDs can then still be handed out from blocks already leased, but leasing a new
+     * block fails.
+     */
+    @Override
+    public void close() throws IOException {
+        if (file == null) {
+            return;
+        }
+        synchronized (OPEN) {
+            if (references == 0 || --references > 0) {
+                return;
+            }
+            OPEN.remove(file);
+        }
+        try {
+            journal.close();
+        } finally {
+            lock.close();
+        }
+    }
+
+    // ------------------------
+    // private methods
+    // ------------------------
+
+    private static IdRegistry _open(Path file, int blockSize) throws IOException {
+        FileChannel lock = FileChannel.open(file.resolveSibling(file.getFileName() + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            if (lock.tryLock() == null) {
+                throw new IOException("ID file is in use by another process: " + file);
+            }
+            Map<String, Long> resumeFrom = _readJournal(file);
+            Path compacted = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (Map.Entry<String, Long> e : resumeFrom.entrySet()) {
+                    _write(out, e.getKey(), e.getValue());
+                }
+                out.force(true);
+            }
+            Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            FileChannel journal = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            return new IdRegistry(blockSize, resumeFrom, file, lock, journal);
+        } catch (IOException | RuntimeException e) {
+            lock.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the highest recorded lease end of each sequence.  A record cut short by a crash, whether it ends early
+     * or ends partway through a character of the name, is ignored along with anything after it.
+     */
+    private static Map<String, Long> _readJournal(Path file) throws IOException {
+        Map<String, Long> ends = new HashMap<>();
+        if (!Files.exists(file)) {
+            return ends;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            DataInputStream data = new DataInputStream(in);
+            while (true) {
+                String name;
+                long end;
+                try {
+                    name = data.readUTF();
+                    end = data.readLong();
+                } catch (EOFException | UTFDataFormatException e) {
+                    return ends;
+                }
+                ends.merge(name, end, Math::max);
+            }
+        }
+    }
+
+    private static void _write(FileChannel channel, String name, long end) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeUTF(name);
+        data.writeLong(end);
+        ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+    }
+
+    // ------------------------
+    // nested classes
+    // ------------------------
+
+    private final class Sequence {
+
+        private final String name;
+        /**
+         * The first ID not yet leased to any thread.
+         */
+        private final AtomicLong unleased;
+        private final ThreadLocal<Block> block = ThreadLocal.withInitial(Block::new);
+
+        Sequence(String name) {
+            this.name = name;
+            this.unleased = new AtomicLong(resumeFrom.getOrDefault(name, 1L));
+        }
+
+        long next() {
+            Block b = block.get();
+            if (b.next == b.end) {
+                long start = unleased.getAndAdd(blockSize);
+                _record(start + blockSize);
+                b.next = start;
+                b.end = start + blockSize;
+            }
+            return b.next++;
+        }
+
+        private void _record(long end) {
+            if (journal == null) {
+                return;
+            }
+            try {
+                synchronized (journal) {
+                    _write(journal, name, end);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+    }
+
+    private static final class Block {
+
+        long next;
+        long end;
+
+    }
+
+}
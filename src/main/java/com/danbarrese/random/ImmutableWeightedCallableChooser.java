@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * An unmodifiable set of weighted operations.  The weights are checked and normalized once, when the chooser is
+ * built, and picking an operation takes no locks.  Picks draw from the chooser's generator, so a chooser can be shared
+ * between threads only if that generator is in {@link com.danbarrese.random.config.GeneratorConfig#threadSafe
+ * thread-safe} mode; otherwise give each thread a chooser over its own {@link ObjectGenerator#fork() fork}.
+ * <p>
+ * Weights can be any finite, non-negative numbers with a positive sum; they are used in proportion to their sum, so
+ * they do not need to add up to exactly 1.
+ * <p>
+ * Build one with {@link #builder(ObjectGenerator)}, or take a snapshot of a {@link WeightedCallableChooser}.
+ */
+public final class ImmutableWeightedCallableChooser<T> {
+
+    private final ObjectGenerator objectGenerator;
+    private final WeightedCallable<T>[] callables;
+    private final AliasTable table;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ImmutableWeightedCallableChooser(ObjectGenerator objectGenerator, List<WeightedCallable<T>> callables) {
+        Validate.notNull(objectGenerator);
+        Validate.notEmpty(callables);
+        this.objectGenerator = objectGenerator;
+        this.callables = callables.toArray(new WeightedCallable[callables.size()]);
+        double[] weights = new double[this.callables.length];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = this.callables[i].probability;
+        }
+        this.table = new AliasTable(weights);
+    }
+
+    public static <T> Builder<T> builder(ObjectGenerator g) {
+        return new Builder<>(g);
+    }
+
+    /**
+     * @return a chooser over the given operations, weighted in proportion to their probabilities.
+     */
+    public static <T> ImmutableWeightedCallableChooser<T> of(ObjectGenerator g, List<WeightedCallable<T>> callables) {
+        return new ImmutableWeightedCallableChooser<>(g, callables);
+    }
+
+    public T doRandomOperation() throws Exception {
+        return callables[table.pick(objectGenerator.nextProbability())].callable.call();
+    }
+
+    /**
+     * Runs n operations picked at random.
+     *
+     * @return the result of each operation, in the order they ran.
+     */
+    public List<T> doRandomOperations(int n) throws Exception {
+        Validate.isTrue(n >= 0);
+        int[] indexes = sampleIndexes(new int[n]);
+        List<T> results = new ArrayList<>(n);
+        for (int index : indexes) {
+            results.add(callables[index].callable.call());
+        }
+        return results;
+    }
+
+    /**
+     * Fills the array with the indexes, into {@link #getCallables()}, of operations picked at random.
+     *
+     * @return the given array.
+     */
+    public int[] sampleIndexes(int[] out) {
+        return table.pick(objectGenerator, out);
+    }
+
+    public List<WeightedCallable<T>> getCallables() {
+        return Collections.unmodifiableList(Arrays.asList(callables));
+    }
+
+    public int size() {
+        return callables.length;
+    }
+
+    // ------------------------
+    // nested classes
+    // ------------------------
+
+    public static final class Builder<T> {
+
+        private final ObjectGenerator objectGenerator;
+        private final List<WeightedCallable<T>> callables = new ArrayList<>();
+
+        private Builder(ObjectGenerator objectGenerator) {
+            this.objectGenerator = objectGenerator;
+        }
+
+        public Builder<T> add(double probability, Callable<T> callable) {
+            return add(new WeightedCallable<>(probability, callable));
+        }
+
+        public Builder<T> add(WeightedCallable<T> callable) {
+            Validate.notNull(callable);
+            callables.add(callable);
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException if a weight is negative or not finite, or if none is positive.
+         */
+        public ImmutableWeightedCallableChooser<T> build() {
+            return new ImmutableWeightedCallableChooser<>(objectGenerator, callables);
+        }
+
+    }
+
+}
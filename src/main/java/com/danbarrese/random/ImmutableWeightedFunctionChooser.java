@@ -0,0 +1,135 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * An unmodifiable set of weighted functions.  The weights are checked and normalized once, when the chooser is
+ * built, and picking a function takes no locks.  Picks draw from the chooser's generator, so a chooser can be shared
+ * between threads only if that generator is in {@link com.danbarrese.random.config.GeneratorConfig#threadSafe
+ * thread-safe} mode; otherwise give each thread a chooser over its own {@link ObjectGenerator#fork() fork}.
+ * <p>
+ * Weights can be any finite, non-negative numbers with a positive sum; they are used in proportion to their sum, so
+ * they do not need to add up to exactly 1.
+ * <p>
+ * Build one with {@link #builder(ObjectGenerator)}, or take a snapshot of a {@link WeightedFunctionChooser}.
+ */
+public final class ImmutableWeightedFunctionChooser<T, R> {
+
+    private final ObjectGenerator objectGenerator;
+    private final WeightedFunction<T, R>[] functions;
+    private final AliasTable table;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ImmutableWeightedFunctionChooser(ObjectGenerator objectGenerator, List<WeightedFunction<T, R>> functions) {
+        Validate.notNull(objectGenerator);
+        Validate.notEmpty(functions);
+        this.objectGenerator = objectGenerator;
+        this.functions = functions.toArray(new WeightedFunction[functions.size()]);
+        double[] weights = new double[this.functions.length];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = this.functions[i].probability;
+        }
+        this.table = new AliasTable(weights);
+    }
+
+    public static <T, R> Builder<T, R> builder(ObjectGenerator g) {
+        return new Builder<>(g);
+    }
+
+    /**
+     * @return a chooser over the given functions, weighted in proportion to their probabilities.
+     */
+    public static <T, R> ImmutableWeightedFunctionChooser<T, R> of(ObjectGenerator g,
+                                                                   List<WeightedFunction<T, R>> functions) {
+        return new ImmutableWeightedFunctionChooser<>(g, functions);
+    }
+
+    public R doRandomFunction(T t) {
+        return functions[table.pick(objectGenerator.nextProbability())].function.apply(t);
+    }
+
+    /**
+     * Applies n functions picked at random to t.
+     *
+     * @return the result of each function, in the order they were applied.
+     */
+    public List<R> doRandomFunctions(T t, int n) {
+        Validate.isTrue(n >= 0);
+        int[] indexes = sampleIndexes(new int[n]);
+        List<R> results = new ArrayList<>(n);
+        for (int index : indexes) {
+            results.add(functions[index].function.apply(t));
+        }
+        return results;
+    }
+
+    /**
+     * Fills the array with the indexes, into {@link #getFunctions()}, of functions picked at random.
+     *
+     * @return the given array.
+     */
+    public int[] sampleIndexes(int[] out) {
+        return table.pick(objectGenerator, out);
+    }
+
+    public List<WeightedFunction<T, R>> getFunctions() {
+        return Collections.unmodifiableList(Arrays.asList(functions));
+    }
+
+    public int size() {
+        return functions.length;
+    }
+
+    // ------------------------
+    // nested classes
+    // ------------------------
+
+    public static final class Builder<T, R> {
+
+        private final ObjectGenerator objectGenerator;
+        private final List<WeightedFunction<T, R>> functions = new ArrayList<>();
+
+        private Builder(ObjectGenerator objectGenerator) {
+            this.objectGenerator = objectGenerator;
+        }
+
+        public Builder<T, R> add(double probability, Function<T, R> function) {
+            return add(new WeightedFunction<>(probability, function));
+        }
+
+        public Builder<T, R> add(WeightedFunction<T, R> function) {
+            Validate.notNull(function);
+            functions.add(function);
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException if a weight is negative or not finite, or if none is positive.
+         */
+        public ImmutableWeightedFunctionChooser<T, R> build() {
+            return new ImmutableWeightedFunctionChooser<>(objectGenerator, functions);
+        }
+
+    }
+
+}
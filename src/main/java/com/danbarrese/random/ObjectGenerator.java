@@ -16,11 +16,13 @@
 package com.danbarrese.random;
 
 import com.danbarrese.random.config.GeneratorConfig;
+import com.danbarrese.random.config.ValueProvider;
 import com.danbarrese.random.exception.FailedRandomObjectGenerationException;
-import java.lang.reflect.Field;
+import com.danbarrese.random.source.RandomSource;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -28,13 +30,20 @@ import java.util.Collection;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.Spliterators;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.reflect.TypeUtils;
 import org.springframework.util.ClassUtils;
@@ -45,16 +54,34 @@ import org.springframework.util.ClassUtils;
 @SuppressWarnings({"unchecked"})
 public class ObjectGenerator extends BaseGenerator {
 
+    private static final Class<?>[] NO_TYPES = new Class<?>[0];
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final ConcurrentMap<Class<?>, GenerationPlan<?>> plans;
+    private final ConcurrentMap<Class<?>, Optional<CompiledPopulator<?>>> populators;
+
     public ObjectGenerator() {
-        super();
+        this(new GeneratorConfig());
     }
 
     public ObjectGenerator(GeneratorConfig config) {
         super(config);
+        plans = new ConcurrentHashMap<>();
+        populators = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates a fork of the given generator, sharing its plans as well as everything {@link
+     * BaseGenerator#BaseGenerator(BaseGenerator, RandomSource)} shares.
+     */
+    protected ObjectGenerator(ObjectGenerator parent, RandomSource random) {
+        super(parent, random);
+        plans = parent.plans;
+        populators = parent.populators;
     }
 
     public <T> T generate(Class<T> klass) {
-        return generate(klass, new ArrayDeque<>(), null, null);
+        return generate(klass, _newObjectStack(), null, null);
     }
 
     @SuppressWarnings("unused")
@@ -63,7 +90,7 @@ public class ObjectGenerator extends BaseGenerator {
         Validate.notNull(constructorArgs);
         try {
             Class<?>[] constructorTypes = _toClasses(constructorArgs);
-            return generate(klass, new ArrayDeque<>(), constructorTypes, constructorArgs);
+            return generate(klass, _newObjectStack(), constructorTypes, constructorArgs);
         } catch (Exception e) {
             throw new FailedRandomObjectGenerationException(e);
         }
@@ -72,7 +99,107 @@ public class ObjectGenerator extends BaseGenerator {
     public <T> T generate(Class<T> klass, Class<?>[] constructorTypes, Object[] constructorArgs) {
         Validate.notNull(klass);
         Validate.notNull(constructorArgs);
-        return generate(klass, new ArrayDeque<>(), constructorTypes, constructorArgs);
+        return generate(klass, _newObjectStack(), constructorTypes, constructorArgs);
+    }
+
+    /**
+     * @return a list of n objects of the given class.
+     */
+    public <T> List<T> generateBatch(Class<T> klass, int n) {
+        Validate.isTrue(n >= 0);
+        return generateBatch(klass, n, new ArrayList<>(n));
+    }
+
+    /**
+     * Fills every element of the given array with a new object of the given class.
+     *
+     * @return the array.
+     */
+    public <T> T[] generateBatch(Class<T> klass, T[] into) {
+        Validate.notNull(klass);
+        Validate.notNull(into);
+        _logBatch(klass, into.length);
+        try {
+            GenerationPlan<T> plan = _getPlan(klass);
+            CompiledPopulator<T> populator = _resolvePopulator(plan);
+            ObjectStack objectStack = _newObjectStack();
+            for (int i = 0; i < into.length; i++) {
+                into[i] = _generateNext(plan, populator, objectStack);
+            }
+            return into;
+        } catch (Exception e) {
+            throw new FailedRandomObjectGenerationException(e);
+        }
+    }
+
+    /**
+     * Adds n objects of the given class to the given list.
+     *
+     * @return the list.
+     */
+    public <T> List<T> generateBatch(Class<T> klass, int n, List<T> into) {
+        Validate.notNull(klass);
+        Validate.isTrue(n >= 0);
+        Validate.notNull(into);
+        _logBatch(klass, n);
+        try {
+            GenerationPlan<T> plan = _getPlan(klass);
+            CompiledPopulator<T> populator = _resolvePopulator(plan);
+            ObjectStack objectStack = _newObjectStack();
+            for (int i = 0; i < n; i++) {
+                into.add(_generateNext(plan, populator, objectStack));
+            }
+            return into;
+        } catch (Exception e) {
+            throw new FailedRandomObjectGenerationException(e);
+        }
+    }
+
+    /**
+     * Generates the object at the given index of this generator's stream of objects.  Each index has its own random
+     * source derived from the generator's seed, so the result does not depend on which thread asks for it or on what
+     * was generated before; a parallel run over a range of indexes gives the same objects as a sequential one.
+     */
+    public <T> T generateAt(Class<T> klass, long index) {
+        Validate.notNull(klass);
+        Validate.isTrue(index >= 0);
+        return _generateAt(klass, index);
+    }
+
+    /**
+     * @return a lazy, unbounded stream of the objects at indexes 0, 1, 2, ... as given by {@link
+     * #generateAt(Class, long)}.  Use {@link #stream(Class, long)} for a parallel stream of a known size, which splits
+     * more evenly than limiting an unbounded one.
+     */
+    public <T> Stream<T> stream(Class<T> klass) {
+        return StreamSupport.stream(spliterator(klass, 0, Long.MAX_VALUE), false);
+    }
+
+    /**
+     * @return a lazy stream of the objects at indexes 0 to count - 1, which is the same whether or not it is run in
+     * parallel.
+     */
+    public <T> Stream<T> stream(Class<T> klass, long count) {
+        return StreamSupport.stream(spliterator(klass, 0, count), false);
+    }
+
+    /**
+     * @return a lazy, unbounded iterator over the objects at indexes 0, 1, 2, ...
+     */
+    public <T> Iterator<T> iterator(Class<T> klass) {
+        return Spliterators.iterator(spliterator(klass, 0, Long.MAX_VALUE));
+    }
+
+    /**
+     * @return a spliterator over the objects from index fromIndex, inclusive, to toIndex, exclusive.
+     */
+    public <T> ObjectSpliterator<T> spliterator(Class<T> klass, long fromIndex, long toIndex) {
+        return new ObjectSpliterator<>(this, klass, fromIndex, toIndex);
+    }
+
+    @Override
+    public ObjectGenerator fork() {
+        return _fork(_splitRandom());
     }
 
     // -----------------------
@@ -87,10 +214,10 @@ public class ObjectGenerator extends BaseGenerator {
     ) {
         Validate.notNull(klass);
         if (constructorTypes == null) {
-            constructorTypes = new Class<?>[0];
+            constructorTypes = NO_TYPES;
         }
         if (constructorArgs == null) {
-            constructorArgs = new Object[0];
+            constructorArgs = NO_ARGS;
         }
         if (config.verbose) {
             log(String.format("generating object of type: %s, with args: %s, with overrides: %s", klass,
@@ -98,28 +225,128 @@ public class ObjectGenerator extends BaseGenerator {
                     config.fieldOverrides));
         }
         try {
-            if (klass.isEnum()) {
-                int randomOrdinal = randomInt(0, klass.getEnumConstants().length - 1);
-                return klass.getEnumConstants()[randomOrdinal];
-            } else {
-                T t = constructNew(klass, constructorTypes, constructorArgs);
-                objectStack.push(t);
-                Class<?> classOrSuperclass = klass;
-                while (classOrSuperclass != null) {
-                    Field[] fields = classOrSuperclass.getDeclaredFields();
-                    for (Field field : fields) {
-                        _processField(field, t, objectStack);
-                    }
-                    classOrSuperclass = classOrSuperclass.getSuperclass();
-                }
-                objectStack.pop();
-                return t;
-            }
+            GenerationPlan<T> plan = _getPlan(klass);
+            CompiledPopulator<T> populator = constructorArgs.length == 0 ? _resolvePopulator(plan) : null;
+            return _generate(plan, populator, objectStack, constructorTypes, constructorArgs);
         } catch (Exception e) {
             throw new FailedRandomObjectGenerationException(e);
         }
     }
 
+    /**
+     * Generates one object from an already resolved plan and populator, which may be null if the object is to be
+     * generated reflectively.
+     */
+    protected <T> T _generate(GenerationPlan<T> plan,
+                              CompiledPopulator<T> populator,
+                              Deque<Object> objectStack,
+                              Class<?>[] constructorTypes,
+                              Object[] constructorArgs) throws Exception {
+        if (plan.enumConstants != null) {
+            int randomOrdinal = randomInt(0, plan.enumConstants.length - 1);
+            return plan.enumConstants[randomOrdinal];
+        }
+        GenerationBudget budget = _budget(objectStack);
+        if (budget != null && !budget.tryObject(objectStack.size(), plan.slots.length) && !objectStack.isEmpty()) {
+            return null;
+        }
+        if (populator != null) {
+            T t = populator.newInstance();
+            objectStack.push(t);
+            populator.populate(t, this);
+            for (GenerationPlan.FieldSlot slot : populator.remainingSlots) {
+                _processField(slot, t, objectStack);
+            }
+            objectStack.pop();
+            return t;
+        } else {
+            T t = constructNew(plan, constructorTypes, constructorArgs);
+            objectStack.push(t);
+            for (GenerationPlan.FieldSlot slot : plan.slots) {
+                _processField(slot, t, objectStack);
+            }
+            objectStack.pop();
+            return t;
+        }
+    }
+
+    /**
+     * Generates the next object of a batch, as if by a call to {@link #generate(Class)}.  The plan, populator and
+     * ancestry stack are resolved once for the whole batch; each object still gets a fresh budget.
+     */
+    protected <T> T _generateNext(GenerationPlan<T> plan,
+                                  CompiledPopulator<T> populator,
+                                  ObjectStack objectStack) throws Exception {
+        if (objectStack.budget != null) {
+            objectStack.budget.reset();
+        }
+        return _generate(plan, populator, objectStack, NO_TYPES, NO_ARGS);
+    }
+
+    /**
+     * @return the populator to generate the plan's class with when no constructor arguments are given, or null to
+     * generate it reflectively.
+     */
+    protected <T> CompiledPopulator<T> _resolvePopulator(GenerationPlan<T> plan) throws Exception {
+        return plan.enumConstants == null && config.compiled ? _getPopulator(plan) : null;
+    }
+
+    /**
+     * Returns the cached plan for the given class, building it if this is the first time the class has been
+     * generated or if the field overrides have changed since the plan was built.
+     */
+    protected <T> GenerationPlan<T> _getPlan(Class<T> klass) throws Exception {
+        GenerationPlan<T> plan = (GenerationPlan<T>) plans.get(klass);
+        if (plan == null || !plan.isCurrent(config.fieldOverrides, config.valueProviders, config.fieldWriterFactory)) {
+            plan = new GenerationPlan<>(klass, config.fieldOverrides, config.valueProviders, config.fieldWriterFactory);
+            plans.put(klass, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Returns the cached {@link CompiledPopulator} for the given plan, compiling it the first time the plan is seen.
+     *
+     * @return null if the plan's class cannot be compiled and must be generated reflectively.
+     */
+    protected <T> CompiledPopulator<T> _getPopulator(GenerationPlan<T> plan) throws Exception {
+        Optional<CompiledPopulator<?>> populator = populators.get(plan.type);
+        if (populator == null || (populator.isPresent() && populator.get().plan != plan)) {
+            populator = Optional.ofNullable(CompiledPopulator.compile(plan));
+            populators.put(plan.type, populator);
+        }
+        return (CompiledPopulator<T>) populator.orElse(null);
+    }
+
+    /**
+     * @return an empty stack for a new top-level generation, with a fresh budget if the configuration sets one.
+     */
+    protected ObjectStack _newObjectStack() {
+        return new ObjectStack(GenerationBudget.of(config));
+    }
+
+    /**
+     * @return the budget of the generation the stack belongs to, or null if it is unlimited.
+     */
+    protected GenerationBudget _budget(Deque<Object> objectStack) {
+        return objectStack instanceof ObjectStack ? ((ObjectStack) objectStack).budget : null;
+    }
+
+    protected <T> T _generateAt(Class<T> klass, long index) {
+        return _fork(_randomSourceAt(index)).generate(klass);
+    }
+
+    protected void _logBatch(Class<?> klass, int n) {
+        if (config.verbose) {
+            log(String.format("generating %d objects of type: %s, with overrides: %s", n, klass,
+                    config.fieldOverrides));
+        }
+    }
+
+    protected ObjectGenerator _fork(RandomSource random) {
+        return new ObjectGenerator(this, random);
+    }
+
     protected <T, E> Collection<T> randomCollection(Type elementType,
                                                     Class<E> collectionType,
                                                     int count,
@@ -143,8 +370,28 @@ public class ObjectGenerator extends BaseGenerator {
             throw new IllegalArgumentException(
                     "Don't know how to generate a random collection of type: " + collectionType.getName());
         }
+        GenerationBudget budget = _budget(objectStack);
+        if (budget != null) {
+            count = budget.capCollectionSize(count, objectStack.size());
+        }
+        if (_isParallel(count)) {
+            for (Object element : ParallelFill.fill(this, count, _parallelChunkSize(), objectStack, budget,
+                    (g, stack) -> g._process(elementType, stack))) {
+                if (element != ParallelFill.SKIPPED) {
+                    collection.add((T) element);
+                }
+            }
+            return collection;
+        }
         for (int i = 0; i < count; i++) {
-            collection.add((T) _process(elementType, objectStack));
+            if (budget != null && !budget.tryElement()) {
+                break;
+            }
+            T element = (T) _process(elementType, objectStack);
+            if (element == null && budget != null && budget.isExhausted()) {
+                break;
+            }
+            collection.add(element);
         }
         return collection;
     }
@@ -163,26 +410,70 @@ public class ObjectGenerator extends BaseGenerator {
             throw new IllegalArgumentException(
                     "Don't know how to generate a random multi-param collection of type: " + collectionType.getName());
         }
+        GenerationBudget budget = _budget(objectStack);
+        if (budget != null) {
+            count = budget.capCollectionSize(count, objectStack.size());
+        }
+        if (_isParallel(count)) {
+            for (Object entry : ParallelFill.fill(this, count, _parallelChunkSize(), objectStack, budget,
+                    (g, stack) -> {
+                        Object key = g._process(elementTypes[0], stack);
+                        Object value = g._process(elementTypes[1], stack);
+                        // an entry cut short by the budget is left out, as in the sequential fill
+                        return (key == null || value == null) && budget != null && budget.isExhausted()
+                                ? null
+                                : new SimpleImmutableEntry<>(key, value);
+                    })) {
+                if (entry != ParallelFill.SKIPPED) {
+                    collection.put(((Map.Entry<T, S>) entry).getKey(), ((Map.Entry<T, S>) entry).getValue());
+                }
+            }
+            return collection;
+        }
         for (int i = 0; i < count; i++) {
-            collection.put((T) _process(elementTypes[0], objectStack),
-                    (S) _process(elementTypes[1], objectStack));
+            if (budget != null && !budget.tryElement()) {
+                break;
+            }
+            T key = (T) _process(elementTypes[0], objectStack);
+            S value = (S) _process(elementTypes[1], objectStack);
+            if ((key == null || value == null) && budget != null && budget.isExhausted()) {
+                break;
+            }
+            collection.put(key, value);
         }
         return collection;
     }
 
-    protected <T> void _processField(Field field, T t, Deque<Object> objectStack) throws Exception {
-        boolean done = _processCustom(field, t);
+    /**
+     * @return true if a collection of the given size should be filled on the fork-join pool.
+     */
+    protected boolean _isParallel(int count) {
+        return config.parallelCollections && count >= config.parallelCollectionThreshold && count > 1;
+    }
+
+    /**
+     * Parallel fills are split into chunks of half the threshold, so every parallel fill has at least two.
+     */
+    protected int _parallelChunkSize() {
+        return Math.max(1, config.parallelCollectionThreshold / 2);
+    }
+
+    protected <T> void _processField(GenerationPlan.FieldSlot slot, T t, Deque<Object> objectStack) throws Exception {
+        boolean done = _processCustom(slot, t);
         if (!done) {
-            _processNormal(field, t, objectStack);
+            _processNormal(slot, t, objectStack);
         }
     }
 
     protected Object _process(Type type) {
-        return _process(type, new ArrayDeque<>());
+        return _process(type, _newObjectStack());
     }
 
     protected Object _process(Type type, Deque<Object> objectStack) {
-        Class<?> klass = _toClass(type);
+        return _process(_toClass(type), type, objectStack);
+    }
+
+    protected Object _process(Class<?> klass, Type type, Deque<Object> objectStack) {
         if (type instanceof ParameterizedType) {
             if (_getParameterTypeCount(type) == 1) {
                 Type parameterType = _getParameterType((ParameterizedType) type);
@@ -200,18 +491,46 @@ public class ObjectGenerator extends BaseGenerator {
                         objectStack);
             }
         }
-        if (isBaseType(klass)) {
-            return random(klass);
+        Callable<?> typeOverride = config.fieldOverrides == null ? null : config.fieldOverrides.getTypeOverride(klass);
+        if (typeOverride != null) {
+            try {
+                return typeOverride.call();
+            } catch (Exception e) {
+                throw new FailedRandomObjectGenerationException(e);
+            }
+        }
+        ValueProvider<?> provider = config.valueProviders.get(klass);
+        if (provider != null) {
+            return provider.next(this);
         }
-        if (_getObjectByType(objectStack, type) != null) {
-            return _getObjectByType(objectStack, type);
-        } else {
-            return generate(klass, objectStack, null, null);
+        Object ancestor = _getObjectByType(objectStack, type);
+        if (ancestor != null) {
+            switch (config.cyclePolicy) {
+                case REUSE_ANCESTOR:
+                    return ancestor;
+                case NULL:
+                    return null;
+                case MAX_DEPTH:
+                    if (objectStack.size() >= config.cycleMaxDepth) {
+                        return null;
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown cycle policy: " + config.cyclePolicy);
+            }
         }
+        return generate(klass, objectStack, null, null);
     }
 
+    /**
+     * @return the innermost object of the given type being generated, or null if there is none.  Constant time when
+     * the stack is an {@link ObjectStack}.
+     */
     protected Object _getObjectByType(Deque<Object> objectStack, Type type) {
         Class<?> klass = _toClass(type);
+        if (objectStack instanceof ObjectStack) {
+            return ((ObjectStack) objectStack).nearest(klass);
+        }
         for (Object o : objectStack) {
             if (o.getClass().equals(klass)) {
                 return o;
@@ -221,51 +540,48 @@ public class ObjectGenerator extends BaseGenerator {
     }
 
     protected <T> void _processNormal(
-            Field field,
+            GenerationPlan.FieldSlot slot,
             T t,
             Deque<Object> objectStack
-    ) throws IllegalAccessException {
-        field.setAccessible(true);
-        Type type = field.getType();
-        Object param = _process(type, objectStack);
-        field.set(t, param);
-    }
-
-    @SuppressWarnings("RedundantIfStatement")
-    protected <T> boolean _processCustom(Field field, T t)
-            throws Exception {
-        if (config.fieldOverrides != null) {
-            Class<?> klass = t.getClass();
-            if (_processCustom(klass, field, t)) {
-                return true;
-            }
+    ) throws Exception {
+        if (slot.builtInProvider && slot.rawType.isPrimitive() && _processPrimitive(slot, t)) {
+            return;
         }
-        return false;
+        Object param = slot.provider != null
+                ? slot.provider.next(this)
+                : _process(slot.rawType, slot.type, objectStack);
+        slot.writer.set(t, param);
     }
 
-    protected <T> boolean _processCustom(Class<?> classUsedForOverrides,
-                                         Field field,
-                                         T t) throws Exception {
-        field.setAccessible(true);
-        if (config.fieldOverrides != null) {
-            Callable<?> c = config.fieldOverrides.get(classUsedForOverrides, field.getName());
-            if (c != null) {
-                Object params = c.call();
-                field.set(t, params);
-                return true;
-            }
+    /**
+     * Generates primitive fields with the unboxed {@code next*} methods and writes them through the primitive setters
+     * of the slot's {@link com.danbarrese.random.reflect.FieldWriter}, so no wrapper objects are created.
+     *
+     * @return false if the field is a primitive type without a dedicated setter.
+     */
+    protected <T> boolean _processPrimitive(GenerationPlan.FieldSlot slot, T t) throws Exception {
+        Class<?> type = slot.rawType;
+        if (type == int.class) {
+            slot.writer.setInt(t, nextInt());
+        } else if (type == long.class) {
+            slot.writer.setLong(t, nextLong());
+        } else if (type == double.class) {
+            slot.writer.setDouble(t, nextDouble());
+        } else if (type == boolean.class) {
+            slot.writer.setBoolean(t, nextBoolean());
+        } else if (type == char.class) {
+            slot.writer.setChar(t, nextChar());
+        } else {
+            return false;
         }
+        return true;
+    }
 
-        if (config.fieldOverrides != null) {
-            Callable<?> c = config.fieldOverrides.get(classUsedForOverrides, field.getName());
-            if (c != null) {
-                Object params = c.call();
-                field.set(t, params);
-                return true;
-            }
-        }
-        if (classUsedForOverrides.getSuperclass() != null) {
-            return _processCustom(classUsedForOverrides.getSuperclass(), field, t);
+    protected <T> boolean _processCustom(GenerationPlan.FieldSlot slot, T t) throws Exception {
+        if (slot.override != null) {
+            Object params = slot.override.call();
+            slot.writer.set(t, params);
+            return true;
         }
         return false;
     }
@@ -302,6 +618,19 @@ public class ObjectGenerator extends BaseGenerator {
         return ((ParameterizedType) type).getActualTypeArguments();
     }
 
+    protected <T> T constructNew(GenerationPlan<T> plan,
+                                 Class<?>[] constructorTypes,
+                                 Object[] constructorArgs)
+            throws NoSuchMethodException, InvocationTargetException, InstantiationException, IllegalAccessException {
+        if (Collection.class.isAssignableFrom(plan.type) || Map.class.isAssignableFrom(plan.type)) {
+            return constructNew(plan.type, constructorTypes, constructorArgs);
+        }
+        if (constructorTypes.length == 0 && plan.noArgConstructor != null) {
+            return plan.noArgConstructor.newInstance();
+        }
+        return plan.getConstructor(constructorTypes).newInstance(constructorArgs);
+    }
+
     protected <T> T constructNew(Class<?> klass, Class<?>[] constructorTypes, Object[] constructorArgs) throws NoSuchMethodException, InvocationTargetException, InstantiationException, IllegalAccessException {
         if (HashSet.class.isAssignableFrom(klass)) {
             return (T) new HashSet<>();
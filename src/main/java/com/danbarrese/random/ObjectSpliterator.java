@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A {@link Spliterator} over the objects at a range of indexes of an {@link ObjectGenerator}'s stream of objects.
+ * <p>
+ * The object at each index is the one {@link ObjectGenerator#generateAt(Class, long)} returns, so splitting the range
+ * hands each half its own random sources and a parallel traversal yields the same objects, in the same order, as a
+ * sequential one.  A range ending at {@link Long#MAX_VALUE} is treated as unbounded and is not {@link #SIZED}.
+ */
+public final class ObjectSpliterator<T> implements Spliterator<T> {
+
+    private static final int CHARACTERISTICS = ORDERED | NONNULL | IMMUTABLE;
+
+    private final ObjectGenerator generator;
+    private final Class<T> type;
+    private long index;
+    private final long fence;
+
+    public ObjectSpliterator(ObjectGenerator generator, Class<T> type, long fromIndex, long toIndex) {
+        Validate.notNull(generator);
+        Validate.notNull(type);
+        Validate.isTrue(fromIndex >= 0 && fromIndex <= toIndex);
+        this.generator = generator;
+        this.type = type;
+        this.index = fromIndex;
+        this.fence = toIndex;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        Validate.notNull(action);
+        if (index >= fence) {
+            return false;
+        }
+        action.accept(generator._generateAt(type, index++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        Validate.notNull(action);
+        long i = index;
+        index = fence;
+        for (; i < fence; i++) {
+            action.accept(generator._generateAt(type, i));
+        }
+    }
+
+    @Override
+    public ObjectSpliterator<T> trySplit() {
+        long mid = index + (fence - index) / 2;
+        if (mid == index) {
+            return null;
+        }
+        ObjectSpliterator<T> prefix = new ObjectSpliterator<>(generator, type, index, mid);
+        index = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return fence == Long.MAX_VALUE ? CHARACTERISTICS : CHARACTERISTICS | SIZED | SUBSIZED;
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * The objects being generated, innermost first, indexed by class so that finding the nearest ancestor of a class
+ * takes constant time however deep the graph is.  Shallow stacks are scanned instead, which is cheaper than keeping
+ * an index; the index is built once the stack grows past {@value #INDEX_DEPTH} objects.
+ * <p>
+ * Objects are added and removed at either end as with any {@link java.util.Deque}; removing objects from the middle
+ * is not supported.
+ */
+public class ObjectStack extends ArrayDeque<Object> {
+
+    static final int INDEX_DEPTH = 8;
+
+    /**
+     * The budget of the generation this stack belongs to, or null if it is unlimited.
+     */
+    public final GenerationBudget budget;
+    private Map<Class<?>, ArrayDeque<Object>> byClass;
+
+    public ObjectStack() {
+        this((GenerationBudget) null);
+    }
+
+    public ObjectStack(GenerationBudget budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Creates a stack holding the same objects as the given one, counting against the given budget.
+     */
+    public ObjectStack(Collection<?> objects, GenerationBudget budget) {
+        this(budget);
+        for (Object o : objects) {
+            addLast(o);
+        }
+    }
+
+    /**
+     * @return the innermost object of exactly the given class, or null if there is none.
+     */
+    public Object nearest(Class<?> klass) {
+        if (byClass == null) {
+            for (Object o : this) {
+                if (o.getClass() == klass) {
+                    return o;
+                }
+            }
+            return null;
+        }
+        ArrayDeque<Object> objects = byClass.get(klass);
+        return objects == null ? null : objects.peekFirst();
+    }
+
+    @Override
+    public void addFirst(Object o) {
+        super.addFirst(o);
+        if (byClass != null) {
+            byClass.computeIfAbsent(o.getClass(), k -> new ArrayDeque<>()).addFirst(o);
+        } else if (size() > INDEX_DEPTH) {
+            _index();
+        }
+    }
+
+    @Override
+    public void addLast(Object o) {
+        super.addLast(o);
+        if (byClass != null) {
+            byClass.computeIfAbsent(o.getClass(), k -> new ArrayDeque<>()).addLast(o);
+        } else if (size() > INDEX_DEPTH) {
+            _index();
+        }
+    }
+
+    @Override
+    public Object pollFirst() {
+        Object o = super.pollFirst();
+        if (o != null && byClass != null) {
+            byClass.get(o.getClass()).pollFirst();
+        }
+        return o;
+    }
+
+    @Override
+    public Object pollLast() {
+        Object o = super.pollLast();
+        if (o != null && byClass != null) {
+            byClass.get(o.getClass()).pollLast();
+        }
+        return o;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        byClass = null;
+    }
+
+    @Override
+    public boolean removeFirstOccurrence(Object o) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeLastOccurrence(Object o) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Object> filter) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    // ------------------------
+    // private methods
+    // ------------------------
+
+    private void _index() {
+        byClass = new IdentityHashMap<>();
+        for (Object o : this) {
+            byClass.computeIfAbsent(o.getClass(), k -> new ArrayDeque<>()).addLast(o);
+        }
+    }
+
+}
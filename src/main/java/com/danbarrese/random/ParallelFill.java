@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random;
+
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Generates the elements of one large collection or map on the fork-join pool.
+ * <p>
+ * The elements are split into chunks, and each chunk is generated by its own {@link ObjectGenerator#fork() fork}
+ * with its own copy of the ancestry, so cycles back to the objects being generated resolve just as they would
+ * sequentially.  The forks are made up front, in order, so a seeded generator fills a collection the same way
+ * whichever threads do the work.  All chunks count against the same {@link GenerationBudget}; a chunk that runs out
+ * of budget stops, and its remaining elements are left out.
+ */
+final class ParallelFill extends RecursiveAction {
+
+    /**
+     * Marks an element that was left out.
+     */
+    static final Object SKIPPED = new Object();
+
+    /**
+     * Generates one element with the given fork and ancestry.
+     */
+    interface Element {
+        Object next(ObjectGenerator generator, Deque<Object> objectStack);
+    }
+
+    private final ObjectGenerator[] forks;
+    private final Deque<Object> ancestry;
+    private final GenerationBudget budget;
+    private final Element element;
+    private final Object[] out;
+    private final int chunkSize;
+    private final int from;
+    private final int to;
+
+    private ParallelFill(ObjectGenerator[] forks,
+                         Deque<Object> ancestry,
+                         GenerationBudget budget,
+                         Element element,
+                         Object[] out,
+                         int chunkSize,
+                         int from,
+                         int to) {
+        this.forks = forks;
+        this.ancestry = ancestry;
+        this.budget = budget;
+        this.element = element;
+        this.out = out;
+        this.chunkSize = chunkSize;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * @return count elements in order, with {@link #SKIPPED} in place of those left out.
+     */
+    static Object[] fill(ObjectGenerator generator,
+                         int count,
+                         int chunkSize,
+                         Deque<Object> objectStack,
+                         GenerationBudget budget,
+                         Element element) {
+        Object[] out = new Object[count];
+        Arrays.fill(out, SKIPPED);
+        ObjectGenerator[] forks = new ObjectGenerator[(count + chunkSize - 1) / chunkSize];
+        for (int i = 0; i < forks.length; i++) {
+            forks[i] = generator.fork();
+        }
+        new ParallelFill(forks, objectStack, budget, element, out, chunkSize, 0, forks.length).invoke();
+        return out;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from > 1) {
+            int mid = (from + to) >>> 1;
+            invokeAll(new ParallelFill(forks, ancestry, budget, element, out, chunkSize, from, mid),
+                    new ParallelFill(forks, ancestry, budget, element, out, chunkSize, mid, to));
+            return;
+        }
+        ObjectGenerator generator = forks[from];
+        ObjectStack objectStack = new ObjectStack(ancestry, budget);
+        int end = Math.min(out.length, (from + 1) * chunkSize);
+        for (int i = from * chunkSize; i < end; i++) {
+            if (budget != null && !budget.tryElement()) {
+                return;
+            }
+            Object o = element.next(generator, objectStack);
+            if (o == null && budget != null && budget.isExhausted()) {
+                return;
+            }
+            out[i] = o;
+        }
+    }
+
+}
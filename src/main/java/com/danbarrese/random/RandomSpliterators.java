@@ -0,0 +1,199 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random;
+
+import com.danbarrese.random.source.RandomSource;
+import java.util.Spliterator;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Spliterators over a fixed number of random values, backing the primitive streams of {@link BaseGenerator}.
+ * <p>
+ * A random source is not thread-safe, so splitting one of these hands the split-off part its own {@link
+ * RandomSource#split() split} of the source.  Each part then draws only from its own source, and a parallel stream
+ * never shares one between threads.
+ */
+final class RandomSpliterators {
+
+    private static final int CHARACTERISTICS = Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL
+            | Spliterator.IMMUTABLE;
+
+    private RandomSpliterators() {
+    }
+
+    // ------------------------
+    // nested classes
+    // ------------------------
+
+    private abstract static class Base {
+
+        final RandomSource random;
+        long index;
+        final long fence;
+
+        Base(RandomSource random, long index, long fence) {
+            this.random = random;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        /**
+         * @return the index to split at, or -1 if the range is too small to split.
+         */
+        long _splitAt() {
+            long mid = index + (fence - index) / 2;
+            return mid == index ? -1 : mid;
+        }
+
+        RandomSource _split() {
+            synchronized (random) {
+                return random.split();
+            }
+        }
+
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+
+    }
+
+    static final class Ints extends Base implements Spliterator.OfInt {
+
+        private final ToIntFunction<RandomSource> draw;
+
+        Ints(RandomSource random, long index, long fence, ToIntFunction<RandomSource> draw) {
+            super(random, index, fence);
+            this.draw = draw;
+        }
+
+        @Override
+        public Ints trySplit() {
+            long mid = _splitAt();
+            if (mid < 0) {
+                return null;
+            }
+            Ints prefix = new Ints(_split(), index, mid, draw);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (index >= fence) {
+                return false;
+            }
+            action.accept(draw.applyAsInt(random));
+            index++;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            for (; index < fence; index++) {
+                action.accept(draw.applyAsInt(random));
+            }
+        }
+
+    }
+
+    static final class Longs extends Base implements Spliterator.OfLong {
+
+        private final ToLongFunction<RandomSource> draw;
+
+        Longs(RandomSource random, long index, long fence, ToLongFunction<RandomSource> draw) {
+            super(random, index, fence);
+            this.draw = draw;
+        }
+
+        @Override
+        public Longs trySplit() {
+            long mid = _splitAt();
+            if (mid < 0) {
+                return null;
+            }
+            Longs prefix = new Longs(_split(), index, mid, draw);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (index >= fence) {
+                return false;
+            }
+            action.accept(draw.applyAsLong(random));
+            index++;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            for (; index < fence; index++) {
+                action.accept(draw.applyAsLong(random));
+            }
+        }
+
+    }
+
+    static final class Doubles extends Base implements Spliterator.OfDouble {
+
+        private final ToDoubleFunction<RandomSource> draw;
+
+        Doubles(RandomSource random, long index, long fence, ToDoubleFunction<RandomSource> draw) {
+            super(random, index, fence);
+            this.draw = draw;
+        }
+
+        @Override
+        public Doubles trySplit() {
+            long mid = _splitAt();
+            if (mid < 0) {
+                return null;
+            }
+            Doubles prefix = new Doubles(_split(), index, mid, draw);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            if (index >= fence) {
+                return false;
+            }
+            action.accept(draw.applyAsDouble(random));
+            index++;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            for (; index < fence; index++) {
+                action.accept(draw.applyAsDouble(random));
+            }
+        }
+
+    }
+
+}
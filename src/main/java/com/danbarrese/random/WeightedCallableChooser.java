@@ -15,148 +15,118 @@
  */
 package com.danbarrese.random;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Iterator;
-import java.util.ListIterator;
-import java.util.Spliterator;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.function.Predicate;
-import java.util.function.UnaryOperator;
-import org.apache.commons.lang3.Validate;
-
+import java.util.List;
+
+/**
+ * A modifiable list of weighted operations.
+ * <p>
+ * Picks are made from an {@link ImmutableWeightedCallableChooser} snapshot of the list, which is taken on the first
+ * pick after the list changes, so picking takes no locks and the weights are only checked when the list has
+ * changed.  The list itself is not thread-safe; to share a fixed set of operations between threads, share its
+ * {@link #snapshot()}.
+ */
 public class WeightedCallableChooser<T> extends ArrayList<WeightedCallable<T>> {
 
-    private static final Object LOCK = new Object();
     private final ObjectGenerator objectGenerator;
-    private final AtomicBoolean probabilitiesVerified;
+    private volatile Snapshot<T> snapshot;
 
     public WeightedCallableChooser(ObjectGenerator g) {
         objectGenerator = g;
-        probabilitiesVerified = new AtomicBoolean(false);
     }
 
     public T doRandomOperation() throws Exception {
-        if (!probabilitiesVerified.get()) {
-            synchronized (LOCK) {
-                if (!probabilitiesVerified.get()) {
-                    Validate.isTrue(this.stream().mapToDouble(value -> value.probability).sum() == 1.0);
-                    probabilitiesVerified.set(true);
-                }
-            }
-        }
-        double p = objectGenerator.randomProbability();
-        double sum = 0;
-        for (WeightedCallable<T> c : this) {
-            if (p > sum && p <= sum + c.probability) {
-                return c.callable.call();
-            }
-            sum += c.probability;
-        }
-        throw new IllegalStateException();
+        return snapshot().doRandomOperation();
     }
 
-    @Override
-    public boolean add(WeightedCallable<T> tCallableWithProbability) {
-        probabilitiesVerified.set(false);
-        return super.add(tCallableWithProbability);
+    /**
+     * @see ImmutableWeightedCallableChooser#doRandomOperations(int)
+     */
+    public List<T> doRandomOperations(int n) throws Exception {
+        return snapshot().doRandomOperations(n);
     }
 
-    @Override
-    public void add(int index, WeightedCallable<T> element) {
-        probabilitiesVerified.set(false);
-        super.add(index, element);
-    }
-
-    @Override
-    public boolean addAll(Collection<? extends WeightedCallable<T>> c) {
-        probabilitiesVerified.set(false);
-        return super.addAll(c);
+    /**
+     * @see ImmutableWeightedCallableChooser#sampleIndexes(int[])
+     */
+    public int[] sampleIndexes(int[] out) {
+        return snapshot().sampleIndexes(out);
     }
 
-    @Override
-    public boolean addAll(int index, Collection<? extends WeightedCallable<T>> c) {
-        probabilitiesVerified.set(false);
-        return super.addAll(index, c);
+    /**
+     * @return an unmodifiable copy of the current list.
+     * @throws IllegalArgumentException if a weight is negative or not finite, or if none is positive.
+     */
+    public ImmutableWeightedCallableChooser<T> snapshot() {
+        Snapshot<T> s = snapshot;
+        if (s == null || s.modCount != modCount) {
+            s = new Snapshot<>(modCount, ImmutableWeightedCallableChooser.of(objectGenerator, this));
+            snapshot = s;
+        }
+        return s.chooser;
     }
 
+    /**
+     * {@code set} is the one change that does not count as a modification of an {@link ArrayList}, so it has to drop
+     * the snapshot itself.
+     */
     @Override
     public WeightedCallable<T> set(int index, WeightedCallable<T> element) {
-        probabilitiesVerified.set(false);
+        snapshot = null;
         return super.set(index, element);
     }
 
+    /**
+     * Setting an element of a sub-list writes straight to the backing array, so the view passes sets through
+     * {@link #set(int, WeightedCallable)} to drop the snapshot.
+     */
     @Override
-    public WeightedCallable<T> remove(int index) {
-        probabilitiesVerified.set(false);
-        return super.remove(index);
-    }
-
-    @Override
-    public boolean remove(Object o) {
-        probabilitiesVerified.set(false);
-        return super.remove(o);
-    }
-
-    @Override
-    public void clear() {
-        probabilitiesVerified.set(false);
-        super.clear();
-    }
+    public List<WeightedCallable<T>> subList(int fromIndex, int toIndex) {
+        List<WeightedCallable<T>> view = super.subList(fromIndex, toIndex);
+        return new AbstractList<WeightedCallable<T>>() {
+            @Override
+            public WeightedCallable<T> get(int index) {
+                return view.get(index);
+            }
 
-    @Override
-    protected void removeRange(int fromIndex, int toIndex) {
-        probabilitiesVerified.set(false);
-        super.removeRange(fromIndex, toIndex);
-    }
+            @Override
+            public int size() {
+                return view.size();
+            }
 
-    @Override
-    public boolean removeAll(Collection<?> c) {
-        probabilitiesVerified.set(false);
-        return super.removeAll(c);
-    }
+            @Override
+            public WeightedCallable<T> set(int index, WeightedCallable<T> element) {
+                snapshot = null;
+                return view.set(index, element);
+            }
 
-    @Override
-    public boolean retainAll(Collection<?> c) {
-        probabilitiesVerified.set(false);
-        return super.retainAll(c);
-    }
+            @Override
+            public void add(int index, WeightedCallable<T> element) {
+                view.add(index, element);
+            }
 
-    @Override
-    public ListIterator<WeightedCallable<T>> listIterator(int index) {
-        probabilitiesVerified.set(false);
-        return super.listIterator(index);
+            @Override
+            public WeightedCallable<T> remove(int index) {
+                return view.remove(index);
+            }
+        };
     }
 
-    @Override
-    public ListIterator<WeightedCallable<T>> listIterator() {
-        probabilitiesVerified.set(false);
-        return super.listIterator();
-    }
+    // ------------------------
+    // nested classes
+    // ------------------------
 
-    @Override
-    public Iterator<WeightedCallable<T>> iterator() {
-        probabilitiesVerified.set(false);
-        return super.iterator();
-    }
+    private static final class Snapshot<T> {
 
-    @Override
-    public boolean removeIf(Predicate<? super WeightedCallable<T>> filter) {
-        probabilitiesVerified.set(false);
-        return super.removeIf(filter);
-    }
+        final int modCount;
+        final ImmutableWeightedCallableChooser<T> chooser;
 
-    @Override
-    public void replaceAll(UnaryOperator<WeightedCallable<T>> operator) {
-        probabilitiesVerified.set(false);
-        super.replaceAll(operator);
-    }
+        Snapshot(int modCount, ImmutableWeightedCallableChooser<T> chooser) {
+            this.modCount = modCount;
+            this.chooser = chooser;
+        }
 
-    @Override
-    public Spliterator<WeightedCallable<T>> spliterator() {
-        probabilitiesVerified.set(false);
-        return super.spliterator();
     }
 
 }
-
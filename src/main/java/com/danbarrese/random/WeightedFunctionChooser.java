@@ -15,148 +15,118 @@
  */
 package com.danbarrese.random;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Iterator;
-import java.util.ListIterator;
-import java.util.Spliterator;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.function.Predicate;
-import java.util.function.UnaryOperator;
-import org.apache.commons.lang3.Validate;
-
+import java.util.List;
+
+/**
+ * A modifiable list of weighted functions.
+ * <p>
+ * Picks are made from an {@link ImmutableWeightedFunctionChooser} snapshot of the list, which is taken on the first
+ * pick after the list changes, so picking takes no locks and the weights are only checked when the list has
+ * changed.  The list itself is not thread-safe; to share a fixed set of functions between threads, share its
+ * {@link #snapshot()}.
+ */
 public class WeightedFunctionChooser<T, R> extends ArrayList<WeightedFunction<T, R>> {
 
-    private static final Object LOCK = new Object();
     private final ObjectGenerator objectGenerator;
-    private final AtomicBoolean probabilitiesVerified;
+    private volatile Snapshot<T, R> snapshot;
 
     public WeightedFunctionChooser(ObjectGenerator g) {
         objectGenerator = g;
-        probabilitiesVerified = new AtomicBoolean(false);
     }
 
     public R doRandomFunction(T t) throws Exception {
-        if (!probabilitiesVerified.get()) {
-            synchronized (LOCK) {
-                if (!probabilitiesVerified.get()) {
-                    Validate.isTrue(this.stream().mapToDouble(value -> value.probability).sum() == 1.0);
-                    probabilitiesVerified.set(true);
-                }
-            }
-        }
-        double p = objectGenerator.randomProbability();
-        double sum = 0;
-        for (WeightedFunction<T, R> pFun : this) {
-            if (p > sum && p <= sum + pFun.probability) {
-                return pFun.function.apply(t);
-            }
-            sum += pFun.probability;
-        }
-        throw new IllegalStateException();
+        return snapshot().doRandomFunction(t);
     }
 
-    @Override
-    public boolean add(WeightedFunction<T, R> tCallableWithProbability) {
-        probabilitiesVerified.set(false);
-        return super.add(tCallableWithProbability);
+    /**
+     * @see ImmutableWeightedFunctionChooser#doRandomFunctions(Object, int)
+     */
+    public List<R> doRandomFunctions(T t, int n) {
+        return snapshot().doRandomFunctions(t, n);
     }
 
-    @Override
-    public void add(int index, WeightedFunction<T, R> element) {
-        probabilitiesVerified.set(false);
-        super.add(index, element);
-    }
-
-    @Override
-    public boolean addAll(Collection<? extends WeightedFunction<T, R>> c) {
-        probabilitiesVerified.set(false);
-        return super.addAll(c);
+    /**
+     * @see ImmutableWeightedFunctionChooser#sampleIndexes(int[])
+     */
+    public int[] sampleIndexes(int[] out) {
+        return snapshot().sampleIndexes(out);
     }
 
-    @Override
-    public boolean addAll(int index, Collection<? extends WeightedFunction<T, R>> c) {
-        probabilitiesVerified.set(false);
-        return super.addAll(index, c);
+    /**
+     * @return an unmodifiable copy of the current list.
+     * @throws IllegalArgumentException if a weight is negative or not finite, or if none is positive.
+     */
+    public ImmutableWeightedFunctionChooser<T, R> snapshot() {
+        Snapshot<T, R> s = snapshot;
+        if (s == null || s.modCount != modCount) {
+            s = new Snapshot<>(modCount, ImmutableWeightedFunctionChooser.of(objectGenerator, this));
+            snapshot = s;
+        }
+        return s.chooser;
     }
 
+    /**
+     * {@code set} is the one change that does not count as a modification of an {@link ArrayList}, so it has to drop
+     * the snapshot itself.
+     */
     @Override
     public WeightedFunction<T, R> set(int index, WeightedFunction<T, R> element) {
-        probabilitiesVerified.set(false);
+        snapshot = null;
         return super.set(index, element);
     }
 
+    /**
+     * Setting an element of a sub-list writes straight to the backing array, so the view passes sets through
+     * {@link #set(int, WeightedFunction)} to drop the snapshot.
+     */
     @Override
-    public WeightedFunction<T, R> remove(int index) {
-        probabilitiesVerified.set(false);
-        return super.remove(index);
-    }
-
-    @Override
-    public boolean remove(Object o) {
-        probabilitiesVerified.set(false);
-        return super.remove(o);
-    }
-
-    @Override
-    public void clear() {
-        probabilitiesVerified.set(false);
-        super.clear();
-    }
+    public List<WeightedFunction<T, R>> subList(int fromIndex, int toIndex) {
+        List<WeightedFunction<T, R>> view = super.subList(fromIndex, toIndex);
+        return new AbstractList<WeightedFunction<T, R>>() {
+            @Override
+            public WeightedFunction<T, R> get(int index) {
+                return view.get(index);
+            }
 
-    @Override
-    protected void removeRange(int fromIndex, int toIndex) {
-        probabilitiesVerified.set(false);
-        super.removeRange(fromIndex, toIndex);
-    }
+            @Override
+            public int size() {
+                return view.size();
+            }
 
-    @Override
-    public boolean removeAll(Collection<?> c) {
-        probabilitiesVerified.set(false);
-        return super.removeAll(c);
-    }
+            @Override
+            public WeightedFunction<T, R> set(int index, WeightedFunction<T, R> element) {
+                snapshot = null;
+                return view.set(index, element);
+            }
 
-    @Override
-    public boolean retainAll(Collection<?> c) {
-        probabilitiesVerified.set(false);
-        return super.retainAll(c);
-    }
+            @Override
+            public void add(int index, WeightedFunction<T, R> element) {
+                view.add(index, element);
+            }
 
-    @Override
-    public ListIterator<WeightedFunction<T, R>> listIterator(int index) {
-        probabilitiesVerified.set(false);
-        return super.listIterator(index);
+            @Override
+            public WeightedFunction<T, R> remove(int index) {
+                return view.remove(index);
+            }
+        };
     }
 
-    @Override
-    public ListIterator<WeightedFunction<T, R>> listIterator() {
-        probabilitiesVerified.set(false);
-        return super.listIterator();
-    }
+    // ------------------------
+    // nested classes
+    // ------------------------
 
-    @Override
-    public Iterator<WeightedFunction<T, R>> iterator() {
-        probabilitiesVerified.set(false);
-        return super.iterator();
-    }
+    private static final class Snapshot<T, R> {
 
-    @Override
-    public boolean removeIf(Predicate<? super WeightedFunction<T, R>> filter) {
-        probabilitiesVerified.set(false);
-        return super.removeIf(filter);
-    }
+        final int modCount;
+        final ImmutableWeightedFunctionChooser<T, R> chooser;
 
-    @Override
-    public void replaceAll(UnaryOperator<WeightedFunction<T, R>> operator) {
-        probabilitiesVerified.set(false);
-        super.replaceAll(operator);
-    }
+        Snapshot(int modCount, ImmutableWeightedFunctionChooser<T, R> chooser) {
+            this.modCount = modCount;
+            this.chooser = chooser;
+        }
 
-    @Override
-    public Spliterator<WeightedFunction<T, R>> spliterator() {
-        probabilitiesVerified.set(false);
-        return super.spliterator();
     }
 
 }
-
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random.config;
+
+/**
+ * What to generate for a field whose class is already being generated further up the object graph, such as the
+ * parent field of a child.
+ */
+public enum CyclePolicy {
+
+    /**
+     * Use the nearest object of that class being generated, so the graph points back at its ancestor.
+     */
+    REUSE_ANCESTOR,
+
+    /**
+     * Leave the field null.
+     */
+    NULL,
+
+    /**
+     * Generate a new object, until the graph is {@link GeneratorConfig#cycleMaxDepth} objects deep; past that the
+     * field is left null.
+     */
+    MAX_DEPTH
+
+}
@@ -23,6 +23,7 @@ public class FieldOverrides {
 
     private final Map<Class<?>, Callable<?>> typeOverrides = new HashMap<>();
     private final Map<Class<?>, Map<String, Callable<?>>> fieldOverrides = new HashMap<>();
+    private volatile long version;
 
     // -------------------------------
     // public methods
@@ -34,17 +35,24 @@ public class FieldOverrides {
 
     public FieldOverrides add(Class<?> klass, String fieldName, Callable<?> override) {
         fieldOverrides.computeIfAbsent(klass, k -> new HashMap<>()).put(fieldName, override);
+        version++;
         return this;
     }
 
+    /**
+     * Generates every value of exactly the given class with the override instead of populating a new instance, wherever
+     * the class appears: as a field, a collection element, or a map key or value.  Field overrides take precedence.
+     */
     public FieldOverrides add(Class<?> klass, Callable<?> override) {
         typeOverrides.put(klass, override);
+        version++;
         return this;
     }
 
     public FieldOverrides addAll(Class<?> klass, Map<String, Callable<?>> fieldOverrides) {
         if (fieldOverrides != null) {
             this.fieldOverrides.computeIfAbsent(klass, k -> new HashMap<>()).putAll(fieldOverrides);
+            version++;
         }
         return this;
     }
@@ -56,12 +64,27 @@ public class FieldOverrides {
         return null;
     }
 
+    /**
+     * @return the override for every value of exactly the given class, or null if there is none.
+     */
+    public Callable<?> getTypeOverride(Class<?> klass) {
+        return typeOverrides.get(klass);
+    }
+
     public FieldOverrides reset() {
         typeOverrides.clear();
         fieldOverrides.clear();
+        version++;
         return this;
     }
 
+    /**
+     * @return a number that changes every time these overrides are modified.
+     */
+    public long getVersion() {
+        return version;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("FieldOverrides{");
@@ -1,6 +1,13 @@
 package com.danbarrese.random.config;
 
+import com.danbarrese.random.IdRegistry;
+import com.danbarrese.random.reflect.FieldWriter;
+import com.danbarrese.random.reflect.FieldWriters;
+import com.danbarrese.random.source.RandomSource;
+import com.danbarrese.random.source.RandomSources;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
+import java.time.ZoneId;
 
 public class GeneratorConfig {
 
@@ -28,6 +35,46 @@ public class GeneratorConfig {
     public int DEFAULT_SET_SIZE_MIN = 1;
     public int DEFAULT_SET_SIZE_MAX = 10;
     public FieldOverrides fieldOverrides = new FieldOverrides();
+    public ValueProviders valueProviders = new ValueProviders();
+    public FieldWriter.Factory fieldWriterFactory = FieldWriters.METHOD_HANDLE;
+    public boolean compiled = false;
+    public boolean threadSafe = false;
+    public RandomSource.Factory randomSourceFactory = RandomSources.JDK;
+    public Long seed = null;
+    public Long referenceTimeMillis = null;
+    public int idBlockSize = IdRegistry.DEFAULT_BLOCK_SIZE;
+    public Path idFile = null;
+    public ZoneId zoneId = ZoneId.systemDefault();
+    /**
+     * What to generate for a field whose class is already being generated further up the graph.
+     */
+    public CyclePolicy cyclePolicy = CyclePolicy.REUSE_ANCESTOR;
+    /**
+     * How many objects deep {@link CyclePolicy#MAX_DEPTH} lets a cycle go before leaving the field null.  Only
+     * applies to cycles; see {@link #budgetMaxDepth} for a limit on every object.
+     */
+    public int cycleMaxDepth = 4;
+    /**
+     * Objects at or deeper than this depth are left null, whatever their class; the object asked for is at depth 0,
+     * so 1 generates only that object.
+     */
+    public int budgetMaxDepth = Integer.MAX_VALUE;
+    /**
+     * How many objects one call may generate, counting the object asked for.
+     */
+    public long budgetMaxObjects = Long.MAX_VALUE;
+    /**
+     * The most elements each collection or map held by an object at depth i may have; the last entry covers deeper
+     * objects.  Null for no limit.
+     */
+    public int[] budgetMaxCollectionSizeByDepth = null;
+    /**
+     * A rough shallow estimate of how many bytes one call may generate; see {@link
+     * com.danbarrese.random.GenerationBudget}.
+     */
+    public long budgetMaxBytes = Long.MAX_VALUE;
+    public boolean parallelCollections = false;
+    public int parallelCollectionThreshold = 1024;
 
 
 }
\ No newline at end of file
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random.config;
+
+import com.danbarrese.random.BaseGenerator;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * The types a generator treats as values rather than objects to populate field by field, each with the {@link
+ * ValueProvider} that generates it.
+ * <p>
+ * Every new instance starts out with the built-in providers for strings, primitives and their wrappers, dates and
+ * {@link BigDecimal}.  Register a provider to generate another type as a value, such as {@code UUID} or {@code
+ * byte[]}, or to replace a built-in one.
+ */
+public class ValueProviders {
+
+    private static final Map<Class<?>, ValueProvider<?>> BUILT_IN;
+
+    static {
+        Map<Class<?>, ValueProvider<?>> builtIn = new HashMap<>();
+        builtIn.put(String.class, (ValueProvider<String>) g -> g.randomWords(1));
+        _putBoth(builtIn, Integer.class, int.class, BaseGenerator::randomInt);
+        _putBoth(builtIn, Long.class, long.class, BaseGenerator::randomLong);
+        _putBoth(builtIn, Double.class, double.class, BaseGenerator::randomDouble);
+        _putBoth(builtIn, Boolean.class, boolean.class, BaseGenerator::randomBoolean);
+        _putBoth(builtIn, Character.class, char.class, BaseGenerator::randomChar);
+        builtIn.put(Date.class, (ValueProvider<Date>) BaseGenerator::randomDate);
+        builtIn.put(Instant.class, (ValueProvider<Instant>) BaseGenerator::randomInstant);
+        builtIn.put(LocalDate.class, (ValueProvider<LocalDate>) BaseGenerator::randomLocalDate);
+        builtIn.put(LocalDateTime.class, (ValueProvider<LocalDateTime>) BaseGenerator::randomLocalDateTime);
+        builtIn.put(OffsetDateTime.class, (ValueProvider<OffsetDateTime>) BaseGenerator::randomOffsetDateTime);
+        builtIn.put(BigDecimal.class, (ValueProvider<BigDecimal>) BaseGenerator::randomBigDecimal);
+        builtIn.put(Serializable.class, (ValueProvider<Long>) g -> g.nextId(Serializable.class));
+        BUILT_IN = Collections.unmodifiableMap(builtIn);
+    }
+
+    private final ConcurrentMap<Class<?>, ValueProvider<?>> providers = new ConcurrentHashMap<>(BUILT_IN);
+    private volatile long version;
+
+    // -------------------------------
+    // public methods
+    // -------------------------------
+
+    public <T> ValueProviders add(Class<T> type, ValueProvider<? extends T> provider) {
+        Validate.notNull(type);
+        Validate.notNull(provider);
+        providers.put(type, provider);
+        version++;
+        return this;
+    }
+
+    public ValueProviders remove(Class<?> type) {
+        providers.remove(type);
+        version++;
+        return this;
+    }
+
+    /**
+     * @return the provider for the given type, or null if the type is not generated as a value.
+     */
+    public ValueProvider<?> get(Class<?> type) {
+        return providers.get(type);
+    }
+
+    /**
+     * @return true if the given provider is the one this library generates the given type with, which callers may
+     * replace with an equivalent unboxed or compiled path.
+     */
+    public static boolean isBuiltIn(Class<?> type, ValueProvider<?> provider) {
+        return provider != null && BUILT_IN.get(type) == provider;
+    }
+
+    /**
+     * Removes every registered provider and restores the built-in ones.
+     */
+    public ValueProviders reset() {
+        providers.clear();
+        providers.putAll(BUILT_IN);
+        version++;
+        return this;
+    }
+
+    /**
+     * @return a number that changes every time these providers are modified.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return "ValueProviders{" + providers.keySet() + '}';
+    }
+
+    // -------------------------------
+    // private methods
+    // -------------------------------
+
+    private static <T> void _putBoth(Map<Class<?>, ValueProvider<?>> map,
+                                     Class<T> boxed,
+                                     Class<?> primitive,
+                                     ValueProvider<T> provider) {
+        map.put(boxed, provider);
+        map.put(primitive, provider);
+    }
+
+}
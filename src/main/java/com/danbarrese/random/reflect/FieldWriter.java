@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random.reflect;
+
+import java.lang.reflect.Field;
+
+/**
+ * Writes values into one field of generated objects.
+ * <p>
+ * The primitive setters let callers that already hold a primitive value write it without boxing.  The defaults
+ * fall back to {@link #set(Object, Object)}, so a writer only needs to override the ones it can do better.
+ */
+public interface FieldWriter {
+
+    void set(Object target, Object value) throws Exception;
+
+    default void setInt(Object target, int value) throws Exception {
+        set(target, value);
+    }
+
+    default void setLong(Object target, long value) throws Exception {
+        set(target, value);
+    }
+
+    default void setDouble(Object target, double value) throws Exception {
+        set(target, value);
+    }
+
+    default void setBoolean(Object target, boolean value) throws Exception {
+        set(target, value);
+    }
+
+    default void setChar(Object target, char value) throws Exception {
+        set(target, value);
+    }
+
+    /**
+     * Creates a {@link FieldWriter} for an accessible field.
+     */
+    interface Factory {
+
+        FieldWriter create(Field field) throws Exception;
+
+    }
+
+}
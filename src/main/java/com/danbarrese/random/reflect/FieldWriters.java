@@ -0,0 +1,200 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * The {@link FieldWriter} backends shipped with the generator.
+ */
+public enum FieldWriters implements FieldWriter.Factory {
+
+    /**
+     * Writes through {@link Field#set(Object, Object)} and its primitive variants.
+     */
+    REFLECTION {
+        @Override
+        public FieldWriter create(Field field) {
+            return new ReflectionFieldWriter(field);
+        }
+    },
+
+    /**
+     * Writes through a setter {@link MethodHandle} bound to the field, with an exact handle per primitive type so
+     * primitive values are never boxed.  Static fields are written the same way, ignoring the target.  Falls back
+     * to {@link #REFLECTION} for fields the handle lookup refuses, such as final fields on older JVMs.
+     */
+    METHOD_HANDLE {
+        @Override
+        public FieldWriter create(Field field) {
+            try {
+                return new MethodHandleFieldWriter(field, MethodHandles.lookup().unreflectSetter(field));
+            } catch (IllegalAccessException e) {
+                return new ReflectionFieldWriter(field);
+            }
+        }
+    };
+
+    // ------------------------
+    // nested classes
+    // ------------------------
+
+    private static final class ReflectionFieldWriter implements FieldWriter {
+
+        private final Field field;
+
+        private ReflectionFieldWriter(Field field) {
+            this.field = field;
+        }
+
+        @Override
+        public void set(Object target, Object value) throws Exception {
+            field.set(target, value);
+        }
+
+        @Override
+        public void setInt(Object target, int value) throws Exception {
+            field.setInt(target, value);
+        }
+
+        @Override
+        public void setLong(Object target, long value) throws Exception {
+            field.setLong(target, value);
+        }
+
+        @Override
+        public void setDouble(Object target, double value) throws Exception {
+            field.setDouble(target, value);
+        }
+
+        @Override
+        public void setBoolean(Object target, boolean value) throws Exception {
+            field.setBoolean(target, value);
+        }
+
+        @Override
+        public void setChar(Object target, char value) throws Exception {
+            field.setChar(target, value);
+        }
+
+    }
+
+    private static final class MethodHandleFieldWriter implements FieldWriter {
+
+        private final MethodHandle objectSetter;
+        private final MethodHandle primitiveSetter;
+        private final Class<?> fieldType;
+
+        private MethodHandleFieldWriter(Field field, MethodHandle setter) {
+            fieldType = field.getType();
+            if (Modifier.isStatic(field.getModifiers())) {
+                // a static setter takes no target, so take one and ignore it like Field#set does
+                setter = MethodHandles.dropArguments(setter, 0, Object.class);
+            }
+            objectSetter = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            primitiveSetter = fieldType.isPrimitive()
+                    ? setter.asType(MethodType.methodType(void.class, Object.class, fieldType))
+                    : null;
+        }
+
+        @Override
+        public void set(Object target, Object value) throws Exception {
+            try {
+                objectSetter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw _rethrow(e);
+            }
+        }
+
+        @Override
+        public void setInt(Object target, int value) throws Exception {
+            if (fieldType != int.class) {
+                set(target, value);
+                return;
+            }
+            try {
+                primitiveSetter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw _rethrow(e);
+            }
+        }
+
+        @Override
+        public void setLong(Object target, long value) throws Exception {
+            if (fieldType != long.class) {
+                set(target, value);
+                return;
+            }
+            try {
+                primitiveSetter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw _rethrow(e);
+            }
+        }
+
+        @Override
+        public void setDouble(Object target, double value) throws Exception {
+            if (fieldType != double.class) {
+                set(target, value);
+                return;
+            }
+            try {
+                primitiveSetter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw _rethrow(e);
+            }
+        }
+
+        @Override
+        public void setBoolean(Object target, boolean value) throws Exception {
+            if (fieldType != boolean.class) {
+                set(target, value);
+                return;
+            }
+            try {
+                primitiveSetter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw _rethrow(e);
+            }
+        }
+
+        @Override
+        public void setChar(Object target, char value) throws Exception {
+            if (fieldType != char.class) {
+                set(target, value);
+                return;
+            }
+            try {
+                primitiveSetter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw _rethrow(e);
+            }
+        }
+
+        private static Exception _rethrow(Throwable e) {
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+            return (Exception) e;
+        }
+
+    }
+
+}
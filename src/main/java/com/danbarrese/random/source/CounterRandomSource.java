@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random.source;
+
+/**
+ * A counter-based source: the n-th value of a stream is a hash of the stream's key and n, so any position can be
+ * reached in constant time with {@link #at(long)}.
+ */
+public class CounterRandomSource implements RandomSource {
+
+    private static final long GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long key;
+    private long counter;
+
+    public CounterRandomSource(long seed) {
+        this(RandomSources.mix64(seed), 0L);
+    }
+
+    private CounterRandomSource(long key, long counter) {
+        this.key = key;
+        this.counter = counter;
+    }
+
+    @Override
+    public long nextLong() {
+        return RandomSources.mix64(key + GAMMA * counter++);
+    }
+
+    @Override
+    public RandomSource split() {
+        return new CounterRandomSource(nextLong());
+    }
+
+    /**
+     * @return a source positioned at the given index of this source's stream.
+     */
+    public CounterRandomSource at(long index) {
+        return new CounterRandomSource(key, index);
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random.source;
+
+/**
+ * A stream of random bits that {@link com.danbarrese.random.BaseGenerator} draws from.
+ * <p>
+ * Implementations only need {@link #nextLong()} and {@link #split()}; the other methods are derived from {@link
+ * #nextLong()}.  Sources are not thread-safe.  Use {@link #split()} to give each thread or task its own stream.
+ */
+public interface RandomSource {
+
+    long nextLong();
+
+    /**
+     * @return a new, statistically independent source.  This source keeps working after the split.
+     */
+    RandomSource split();
+
+    /**
+     * @return a uniformly distributed int in [0, bound).
+     */
+    default int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        // Lemire's multiply-shift with rejection, unbiased and usually free of divisions.
+        long m = (nextLong() >>> 32) * bound;
+        long low = m & 0xFFFFFFFFL;
+        if (low < bound) {
+            long threshold = (0x100000000L - bound) % bound;
+            while (low < threshold) {
+                m = (nextLong() >>> 32) * bound;
+                low = m & 0xFFFFFFFFL;
+            }
+        }
+        return (int) (m >>> 32);
+    }
+
+    /**
+     * @return a uniformly distributed double in [0, 1).
+     */
+    default double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Creates a {@link RandomSource} from a seed.
+     */
+    interface Factory {
+
+        RandomSource create(long seed);
+
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random.source;
+
+/**
+ * The {@link RandomSource} implementations shipped with the generator.
+ */
+public enum RandomSources implements RandomSource.Factory {
+
+    /**
+     * {@link java.util.Random}, the generator's original source.  Synchronized on a single seed, and the slowest.
+     */
+    JDK {
+        @Override
+        public RandomSource create(long seed) {
+            return new JdkRandomSource(seed);
+        }
+    },
+
+    /**
+     * {@link java.util.SplittableRandom}.
+     */
+    SPLITTABLE {
+        @Override
+        public RandomSource create(long seed) {
+            return new SplittableRandomSource(seed);
+        }
+    },
+
+    /**
+     * xoshiro256**, with {@link RandomSource#split()} jumping 2^128 steps ahead.
+     */
+    XOSHIRO256 {
+        @Override
+        public RandomSource create(long seed) {
+            return new Xoshiro256RandomSource(seed);
+        }
+    },
+
+    /**
+     * A counter-based source that can jump to any position of its stream in constant time.
+     */
+    COUNTER {
+        @Override
+        public RandomSource create(long seed) {
+            return new CounterRandomSource(seed);
+        }
+    };
+
+    /**
+     * @return the seed of the stream at the given index of a family of streams sharing one root seed.  Neighbouring
+     * indexes give unrelated seeds.
+     */
+    public static long seedAt(long seed, long index) {
+        return mix64(mix64(seed) + 0x9E3779B97F4A7C15L * (index + 1));
+    }
+
+    /**
+     * The SplitMix64 finalizer, used to turn seeds and counters into well-mixed bits.
+     */
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+}
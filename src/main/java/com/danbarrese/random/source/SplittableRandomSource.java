@@ -0,0 +1,52 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random.source;
+
+import java.util.SplittableRandom;
+
+public class SplittableRandomSource implements RandomSource {
+
+    private final SplittableRandom random;
+
+    public SplittableRandomSource(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    public SplittableRandomSource(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    @Override
+    public double nextDouble() {
+        return random.nextDouble();
+    }
+
+    @Override
+    public RandomSource split() {
+        return new SplittableRandomSource(random.split());
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random.source;
+
+/**
+ * xoshiro256** by David Blackman and Sebastiano Vigna.
+ * <p>
+ * {@link #split()} hands the current position to the new source and jumps this one 2^128 steps ahead, so up to 2^128
+ * splits produce streams that never overlap.
+ */
+public class Xoshiro256RandomSource implements RandomSource {
+
+    private static final long[] JUMP = {
+            0x180EC6D33CFD0ABAL, 0xD5A61266F0C9392CL, 0xA9582618E03FC9AAL, 0x39ABDC4529B1661CL
+    };
+
+    private long s0;
+    private long s1;
+    private long s2;
+    private long s3;
+
+    public Xoshiro256RandomSource(long seed) {
+        // expand the seed with SplitMix64, as recommended by the authors, so the state is never all zero.
+        long x = seed;
+        s0 = RandomSources.mix64(x += 0x9E3779B97F4A7C15L);
+        s1 = RandomSources.mix64(x += 0x9E3779B97F4A7C15L);
+        s2 = RandomSources.mix64(x += 0x9E3779B97F4A7C15L);
+        s3 = RandomSources.mix64(x + 0x9E3779B97F4A7C15L);
+    }
+
+    private Xoshiro256RandomSource(long s0, long s1, long s2, long s3) {
+        this.s0 = s0;
+        this.s1 = s1;
+        this.s2 = s2;
+        this.s3 = s3;
+    }
+
+    @Override
+    public long nextLong() {
+        long result = Long.rotateLeft(s1 * 5, 7) * 9;
+        long t = s1 << 17;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+        return result;
+    }
+
+    @Override
+    public RandomSource split() {
+        Xoshiro256RandomSource child = new Xoshiro256RandomSource(s0, s1, s2, s3);
+        _jump();
+        return child;
+    }
+
+    // ------------------------
+    // private methods
+    // ------------------------
+
+    private void _jump() {
+        long j0 = 0;
+        long j1 = 0;
+        long j2 = 0;
+        long j3 = 0;
+        for (long jump : JUMP) {
+            for (int b = 0; b < 64; b++) {
+                if ((jump & (1L << b)) != 0) {
+                    j0 ^= s0;
+                    j1 ^= s1;
+                    j2 ^= s2;
+                    j3 ^= s3;
+                }
+                nextLong();
+            }
+        }
+        s0 = j0;
+        s1 = j1;
+        s2 = j2;
+        s3 = j3;
+    }
+
+}
@@ -15,11 +15,25 @@
  */
 package com.danbarrese.random;
 
+import com.danbarrese.random.config.GeneratorConfig;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class BaseGeneratorTest {
 
@@ -87,6 +101,107 @@ public class BaseGeneratorTest {
         Assert.assertEquals((Long) 3L, l3);
     }
 
+    @Test
+    public void idsAreUniqueAcrossThreads() throws Exception {
+        GeneratorConfig config = new GeneratorConfig();
+        config.threadSafe = true;
+        config.idBlockSize = 16;
+        BaseGenerator shared = new BaseGenerator(config);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                long last = 0;
+                for (int i = 0; i < 1000; i++) {
+                    long id = shared.nextId(BaseGeneratorTest.class);
+                    Assert.assertTrue(id > last);
+                    Assert.assertTrue(ids.add(id));
+                    last = id;
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(4000, ids.size());
+    }
+
+    @Test
+    public void idsResumeFromFile() throws Exception {
+        Path file = Files.createTempFile("ids", ".log");
+        Files.delete(file);
+        try {
+            GeneratorConfig config = new GeneratorConfig();
+            config.idFile = file;
+            config.idBlockSize = 10;
+            BaseGenerator first = new BaseGenerator(config);
+            Assert.assertEquals((Long) 1L, first.nextId());
+            Assert.assertEquals((Long) 1L, first.nextId(String.class));
+            for (int i = 0; i < 15; i++) {
+                first.nextId();
+            }
+            BaseGenerator shared = new BaseGenerator(config);
+            Assert.assertEquals((Long) 17L, shared.nextId());
+            first.close();
+            Assert.assertEquals((Long) 18L, shared.nextId());
+            shared.close();
+
+            try (BaseGenerator second = new BaseGenerator(config)) {
+                Assert.assertEquals((Long) 21L, second.nextId());
+                Assert.assertEquals((Long) 11L, second.nextId(String.class));
+                Assert.assertEquals((Long) 1L, second.nextId(Integer.class));
+            }
+            try (BaseGenerator third = new BaseGenerator(config)) {
+                Assert.assertEquals((Long) 31L, third.nextId());
+            }
+
+            // a record torn partway through a character of its name
+            Files.write(file, new byte[]{0, 2, (byte) 0xC3, 'a'}, StandardOpenOption.APPEND);
+            try (BaseGenerator fourth = new BaseGenerator(config)) {
+                Assert.assertEquals((Long) 41L, fourth.nextId());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(file.resolveSibling(file.getFileName() + ".lock"));
+        }
+    }
+
+    @Test
+    public void randomDates() throws Exception {
+        GeneratorConfig config = new GeneratorConfig();
+        config.referenceTimeMillis = 1500000000123L;
+        config.zoneId = ZoneOffset.UTC;
+        BaseGenerator dates = new BaseGenerator(config);
+        for (int i = 0; i < 1000; i++) {
+            Date d = dates.randomDate("2000-01-01 00:00:00", "2000-01-31 23:59:59");
+            Assert.assertTrue(!d.before(new Date(946684800000L)));
+            Assert.assertTrue(!d.after(new Date(949363199000L)));
+            Assert.assertTrue(dates.randomDate().getTime() <= 1500000000123L);
+            Date recent = dates.randomDateInLastNDays(3);
+            Assert.assertEquals(0, recent.getTime() % 1000);
+            Assert.assertTrue(recent.getTime() >= 1500000000000L - 3 * 86400000L);
+            Assert.assertTrue(recent.getTime() <= 1500000000000L - 86400000L);
+            Assert.assertFalse(dates.randomInstant().isAfter(Instant.ofEpochMilli(1500000000123L)));
+            Assert.assertFalse(dates.randomLocalDate().isAfter(LocalDate.of(2017, 7, 14)));
+            Assert.assertNotNull(dates.random(LocalDateTime.class));
+            Assert.assertEquals(ZoneOffset.UTC, dates.random(OffsetDateTime.class).getOffset());
+        }
+        Assert.assertTrue(dates.isBaseType(Instant.class));
+        Assert.assertTrue(dates.isBaseType(LocalDate.class));
+        Assert.assertTrue(dates.isBaseType(LocalDateTime.class));
+        Assert.assertTrue(dates.isBaseType(OffsetDateTime.class));
+        Assert.assertEquals(946684800000L, dates.randomDate("2000-01-01 00:00:00", "2000-01-01 00:00:00").getTime());
+
+        // a zone away from the JVM's own, so that parsing in the default zone would show
+        config.zoneId = ZoneId.of(TimeZone.getDefault().getRawOffset() == 9 * 3600000 ? "UTC" : "Asia/Tokyo");
+        long midnight = LocalDateTime.of(2000, 1, 1, 0, 0).atZone(config.zoneId).toInstant().toEpochMilli();
+        Assert.assertEquals(midnight, new BaseGenerator(config)
+                .randomDate("2000-01-01 00:00:00", "2000-01-01 00:00:00").getTime());
+        // and a generator already in use follows the change
+        Assert.assertEquals(midnight, dates.randomDate("2000-01-01 00:00:00", "2000-01-01 00:00:00").getTime());
+    }
+
     @Test
     public void testChooseOrCreateNew() throws Exception {
         Set<Long> ids  = new HashSet<>();
@@ -97,4 +212,83 @@ public class BaseGeneratorTest {
         }
     }
 
+    @Test
+    public void primitivesIgnoreNullOdds() throws Exception {
+        BaseGenerator nulls = new BaseGenerator();
+        nulls.config.DEFAULT_CHANCE_OF_NULL_INT = 1.0;
+        nulls.config.DEFAULT_CHANCE_OF_NULL_LONG = 1.0;
+        nulls.config.DEFAULT_CHANCE_OF_NULL_DOUBLE = 1.0;
+        nulls.config.DEFAULT_CHANCE_OF_NULL_CHAR = 1.0;
+        Assert.assertNull(nulls.randomInt());
+        Assert.assertNull(nulls.randomLong());
+        Assert.assertNull(nulls.randomDouble());
+        Assert.assertNull(nulls.randomChar());
+        for (int i = 0; i < 10000; i++) {
+            int n = nulls.nextInt(-5, 5);
+            Assert.assertTrue(n >= -5 && n <= 5);
+            long l = nulls.nextLong(-5L, 5L);
+            Assert.assertTrue(l >= -5L && l <= 5L);
+            double d = nulls.nextDouble(-5.0, 5.0);
+            Assert.assertTrue(d >= -5.0 && d <= 5.0);
+            Assert.assertTrue(nulls.config.CHARACTER_SET.indexOf(nulls.nextChar()) >= 0);
+        }
+        Assert.assertTrue(nulls.nextInt(Integer.MIN_VALUE, -1) < 0);
+    }
+
+    @Test
+    public void fillArrays() throws Exception {
+        for (int n : g.fillInts(new int[10000], -3, 3)) {
+            Assert.assertTrue(n >= -3 && n <= 3);
+        }
+        for (int n : g.fillInts(new int[10000], Integer.MIN_VALUE, -1)) {
+            Assert.assertTrue(n < 0);
+        }
+        for (long l : g.fillLongs(new long[10000], 10L, 20L)) {
+            Assert.assertTrue(l >= 10L && l <= 20L);
+        }
+        for (double d : g.fillDoubles(new double[10000], 1.0, 2.0)) {
+            Assert.assertTrue(d >= 1.0 && d < 2.0);
+        }
+        for (char c : g.fillChars(new char[10000])) {
+            Assert.assertTrue(g.config.CHARACTER_SET.indexOf(c) >= 0);
+        }
+        for (String s : g.fillStrings(new String[1000], 2, 4)) {
+            Assert.assertTrue(s.length() >= 2 && s.length() <= 4);
+        }
+        Assert.assertEquals(100, g.ints(100, 0, 5).filter(n -> n >= 0 && n <= 5).count());
+        Assert.assertEquals(100, g.longs(100, 0L, 5L).filter(l -> l >= 0L && l <= 5L).count());
+        Assert.assertEquals(100, g.doubles(100, 0.0, 5.0).filter(d -> d >= 0.0 && d < 5.0).count());
+        Assert.assertEquals(100000, g.ints(100000, 0, 5).parallel().filter(n -> n >= 0 && n <= 5).count());
+        Assert.assertEquals(100000, g.longs(100000, 0L, 5L).parallel().filter(l -> l >= 0L && l <= 5L).count());
+        Assert.assertEquals(100000, g.doubles(100000, 0.0, 5.0).parallel().filter(d -> d >= 0.0 && d < 5.0).count());
+        Assert.assertEquals(6, g.ints(100000, 0, 5).parallel().distinct().count());
+    }
+
+    @Test
+    public void testTryOdds() throws Exception {
+        int hits = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (g.tryOdds(0.25)) {
+                hits++;
+            }
+            Assert.assertFalse(g.tryOdds(0.0));
+            Assert.assertTrue(g.tryOdds(1.0));
+        }
+        Assert.assertTrue(String.valueOf(hits), hits > 23000 && hits < 27000);
+
+        BaseGenerator nullChars = new BaseGenerator();
+        nullChars.config.DEFAULT_CHANCE_OF_NULL_CHAR = 0.5;
+        Assert.assertEquals(25, nullChars.randomString(25).length());
+    }
+
+    @Test
+    public void randomWordsAreDistinct() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            String[] words = g.randomWords(20).split(" ");
+            Assert.assertEquals(20, words.length);
+            Assert.assertEquals(20, new HashSet<>(Arrays.asList(words)).size());
+        }
+        Assert.assertEquals(250, g.randomWords(1000).split(" ").length);
+    }
+
 }
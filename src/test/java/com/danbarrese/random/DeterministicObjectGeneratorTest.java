@@ -0,0 +1,118 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random;
+
+import com.danbarrese.random.config.GeneratorConfig;
+import com.danbarrese.random.source.RandomSources;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.apache.commons.lang3.builder.RecursiveToStringStyle;
+import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DeterministicObjectGeneratorTest {
+
+    public static class Row {
+        private long number;
+        private String name;
+        private Integer count;
+        private double score;
+        private Date created;
+        private List<Cell> cells;
+    }
+
+    public static class Cell {
+        private String value;
+        private char letter;
+        private boolean flag;
+    }
+
+    private static class NoHashCodeStyle extends RecursiveToStringStyle {
+        NoHashCodeStyle() {
+            setUseIdentityHashCode(false);
+        }
+
+        @Override
+        protected boolean accept(Class<?> clazz) {
+            return !clazz.getName().startsWith("java.");
+        }
+    }
+
+    private static String dump(Object o) {
+        return ReflectionToStringBuilder.toString(o, new NoHashCodeStyle());
+    }
+
+    private static ObjectGenerator seeded(RandomSources source) {
+        GeneratorConfig config = new GeneratorConfig();
+        config.seed = 1234L;
+        config.referenceTimeMillis = 1500000000000L;
+        config.randomSourceFactory = source;
+        return new ObjectGenerator(config);
+    }
+
+    @Test
+    public void sameSeedSameObjects() throws Exception {
+        ObjectGenerator a = seeded(RandomSources.JDK);
+        ObjectGenerator b = seeded(RandomSources.JDK);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(dump(a.generate(Row.class)), dump(b.generate(Row.class)));
+        }
+    }
+
+    @Test
+    public void parallelMatchesSequential() throws Exception {
+        for (RandomSources source : RandomSources.values()) {
+            ObjectGenerator g = seeded(source);
+            List<String> sequential = LongStream.range(0, 500)
+                    .mapToObj(i -> dump(g.generateAt(Row.class, i)))
+                    .collect(Collectors.toList());
+            ObjectGenerator shared = seeded(source);
+            List<String> parallel = LongStream.range(0, 500)
+                    .parallel()
+                    .mapToObj(i -> dump(shared.generateAt(Row.class, i)))
+                    .collect(Collectors.toList());
+            Assert.assertEquals(sequential, parallel);
+            Assert.assertNotEquals(sequential.get(0), sequential.get(1));
+        }
+    }
+
+    @Test
+    public void streamMatchesGenerateAt() throws Exception {
+        ObjectGenerator g = seeded(RandomSources.SPLITTABLE);
+        g.config.sdf = new SimpleDateFormat("yyyy-MM-dd");
+        List<String> expected = LongStream.range(0, 500)
+                .mapToObj(i -> dump(g.generateAt(Row.class, i)))
+                .collect(Collectors.toList());
+        Assert.assertEquals(expected, g.stream(Row.class, 500).map(DeterministicObjectGeneratorTest::dump)
+                .collect(Collectors.toList()));
+        Assert.assertEquals(expected, g.stream(Row.class, 500).parallel().map(DeterministicObjectGeneratorTest::dump)
+                .collect(Collectors.toList()));
+        Assert.assertEquals(expected.subList(0, 10), g.stream(Row.class).limit(10)
+                .map(DeterministicObjectGeneratorTest::dump)
+                .collect(Collectors.toList()));
+        Iterator<Row> rows = g.iterator(Row.class);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(expected.get(i), dump(rows.next()));
+        }
+        Assert.assertEquals(500, g.stream(Row.class, 500).spliterator().getExactSizeIfKnown());
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random;
+
+import java.io.ByteArrayOutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DictionaryTest {
+
+    @Test
+    public void sharedBetweenGenerators() throws Exception {
+        Dictionary d = Dictionary.forName("dict_1000.txt");
+        Assert.assertSame(d, Dictionary.forName("dict_1000.txt"));
+        Assert.assertEquals(1000, d.size());
+        for (int i = 0; i < d.size(); i++) {
+            Assert.assertFalse(d.word(i).isEmpty());
+        }
+    }
+
+    @Test
+    public void wordsRoundTrip() throws Exception {
+        Dictionary d = new Dictionary("test", Arrays.asList("café", "", "naïve", "café", " zebra ", "日本"));
+        Assert.assertEquals(4, d.size());
+        Assert.assertEquals("café", d.word(0));
+        Assert.assertEquals("naïve", d.word(1));
+        Assert.assertEquals("zebra", d.word(2));
+        Assert.assertEquals("日本", d.word(3));
+    }
+
+    @Test
+    public void binaryRoundTrip() throws Exception {
+        Dictionary d = new Dictionary("test", Arrays.asList("café", "naïve", "zebra", "日本"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        d.write(out);
+        Dictionary read = Dictionary.read("test", ByteBuffer.wrap(out.toByteArray()));
+        Assert.assertEquals(d.size(), read.size());
+        for (int i = 0; i < d.size(); i++) {
+            Assert.assertEquals(d.word(i), read.word(i));
+        }
+    }
+
+    @Test
+    public void bundledDictionariesAreCompiled() throws Exception {
+        Dictionary text = Dictionary.load("dict_250.txt");
+        Dictionary binary = Dictionary.loadBinary("dict_250.txt");
+        Assert.assertNotNull(binary);
+        Assert.assertEquals(text.size(), binary.size());
+        for (int i = 0; i < text.size(); i++) {
+            Assert.assertEquals(text.word(i), binary.word(i));
+        }
+        Assert.assertNull(Dictionary.loadBinary("no_such_dictionary.txt"));
+    }
+
+    @Test
+    public void userTextShadowsBundledBinary() throws Exception {
+        Path dir = Files.createTempDirectory("dict");
+        Path text = dir.resolve("dict_250.txt");
+        Files.write(text, Arrays.asList("mine", "only"), StandardCharsets.UTF_8);
+        ClassLoader parent = Thread.currentThread().getContextClassLoader();
+        ClassLoader userFirst = new ClassLoader(parent) {
+            @Override
+            public URL getResource(String name) {
+                Path p = dir.resolve(name);
+                try {
+                    return Files.exists(p) ? p.toUri().toURL() : parent.getResource(name);
+                } catch (MalformedURLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        Thread.currentThread().setContextClassLoader(userFirst);
+        try {
+            Assert.assertNull(Dictionary.loadBinary("dict_250.txt"));
+            Assert.assertNotNull(Dictionary.loadBinary("dict_1000.txt"));
+        } finally {
+            Thread.currentThread().setContextClassLoader(parent);
+            Files.delete(text);
+            Files.delete(dir);
+        }
+    }
+
+}
@@ -16,8 +16,11 @@
 package com.danbarrese.random;
 
 import com.danbarrese.House;
+import com.danbarrese.Room;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import org.junit.Assert;
 import org.junit.Test;
 
 public class HouseObjectGeneratorTest {
@@ -36,4 +39,45 @@ public class HouseObjectGeneratorTest {
         System.out.println(o);
     }
 
+    public static class Street {
+        private Map<String, House> houses;
+    }
+
+    @Test
+    public void testBudget() throws Exception {
+        for (boolean compiled : new boolean[] {false, true}) {
+            ObjectGenerator g = new ObjectGenerator();
+            g.config.compiled = compiled;
+            g.config.DEFAULT_SET_SIZE_MIN = 5;
+            g.config.DEFAULT_SET_SIZE_MAX = 5;
+
+            g.config.budgetMaxDepth = 1;
+            House house = g.generate(House.class);
+            Assert.assertNotNull(house.getAddress());
+            Assert.assertTrue(house.getRooms().isEmpty());
+
+            g.config.budgetMaxDepth = Integer.MAX_VALUE;
+            g.config.budgetMaxCollectionSizeByDepth = new int[] {3, 2};
+            house = g.generate(House.class);
+            Assert.assertEquals(3, house.getRooms().size());
+            for (Room room : house.getRooms()) {
+                Assert.assertEquals(2, room.getChairs().size());
+            }
+
+            g.config.budgetMaxCollectionSizeByDepth = null;
+            g.config.budgetMaxObjects = 4;
+            house = g.generate(House.class);
+            int objects = 1;
+            for (Room room : house.getRooms()) {
+                objects += 1 + room.getChairs().size();
+            }
+            Assert.assertEquals(4, objects);
+
+            g.config.budgetMaxObjects = 3;
+            Street street = g.generate(Street.class);
+            Assert.assertEquals(1, street.houses.size());
+            Assert.assertFalse(street.houses.containsValue(null));
+        }
+    }
+
 }
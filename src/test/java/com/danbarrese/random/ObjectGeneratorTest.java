@@ -15,12 +15,52 @@
  */
 package com.danbarrese.random;
 
+import com.danbarrese.Chair;
+import com.danbarrese.Room;
+import com.danbarrese.random.config.GeneratorConfig;
+import com.danbarrese.random.config.ValueProviders;
+import com.danbarrese.random.reflect.FieldWriters;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import org.junit.Assert;
 import org.junit.Test;
 
 public class ObjectGeneratorTest {
 
+    public static class Catalog {
+        public Chair featured;
+        public List<Chair> chairs;
+        public Map<String, Chair> byName;
+        public Map<Chair, Integer> stock;
+    }
+
+    public static class Library {
+        public List<Book> books;
+        public Map<UUID, Book> index;
+    }
+
+    public static class Book {
+        public String title;
+        public Library library;
+    }
+
+    public static class Counted {
+        public static int COUNTER;
+        public int x;
+    }
+
+    public static class Token {
+        public UUID uuid;
+        public byte[] bytes;
+        public int count;
+        public BigInteger big;
+    }
+
     public static class MyObject {
         private Long id;
         private String name;
@@ -162,6 +202,37 @@ public class ObjectGeneratorTest {
         Assert.assertNotNull(a.getHeight());
     }
 
+    @Test
+    public void testGenerateBatch() throws Exception {
+        for (boolean compiled : new boolean[] {false, true}) {
+            ObjectGenerator g = new ObjectGenerator();
+            g.config.compiled = compiled;
+            g.config.fieldOverrides.add(MySubSubObject.class, "dexterity", () -> "hahaha");
+
+            List<MyObject2> list = g.generateBatch(MyObject2.class, 100);
+            Assert.assertEquals(100, list.size());
+            Assert.assertEquals(100, list.stream().map(MyObject2::getId).distinct().count());
+            for (MyObject2 a : list) {
+                Assert.assertEquals("hahaha", a.getSub().getSubSub().getDexterity());
+            }
+
+            MyObject2[] array = g.generateBatch(MyObject2.class, new MyObject2[10]);
+            for (MyObject2 a : array) {
+                Assert.assertNotNull(a.getSub().getSubSub());
+            }
+
+            g.config.budgetMaxDepth = 2;
+            List<MyObject2> into = new ArrayList<>();
+            into.add(null);
+            Assert.assertSame(into, g.generateBatch(MyObject2.class, 5, into));
+            Assert.assertEquals(6, into.size());
+            for (MyObject2 a : into.subList(1, 6)) {
+                Assert.assertNotNull(a.getSub());
+                Assert.assertNull(a.getSub().getSubSub());
+            }
+        }
+    }
+
     @Test
     public void testCustomField() throws Exception {
         ObjectGenerator g = new ObjectGenerator();
@@ -174,4 +245,149 @@ public class ObjectGeneratorTest {
         Assert.assertEquals("hahaha", a.getSub().getSubSub().getDexterity());
     }
 
+    @Test
+    public void testPlanIsReusedUntilOverridesChange() throws Exception {
+        ObjectGenerator g = new ObjectGenerator();
+        GenerationPlan<MyObject2> plan = g._getPlan(MyObject2.class);
+        Assert.assertSame(plan, g._getPlan(MyObject2.class));
+
+        g.config.fieldOverrides.add(MyObject.class, "name", () -> "blahhh");
+        Assert.assertNotSame(plan, g._getPlan(MyObject2.class));
+        Assert.assertEquals("blahhh", g.generate(MyObject2.class).getName());
+    }
+
+    @Test
+    public void testFieldWriterBackends() throws Exception {
+        for (FieldWriters backend : FieldWriters.values()) {
+            ObjectGenerator g = new ObjectGenerator();
+            g.config.fieldWriterFactory = backend;
+            g.config.DEFAULT_INT_MIN = 5;
+            g.config.DEFAULT_DOUBLE_MIN = 10.0;
+            Room room = g.generate(Room.class);
+            Assert.assertTrue(room.getWidth() >= 5);
+            Assert.assertTrue(room.getHeight() >= 5);
+            Assert.assertNotNull(room.getName());
+            for (Chair chair : room.getChairs()) {
+                Assert.assertTrue(chair.getCost() >= 10.0);
+            }
+            for (boolean compiled : new boolean[]{false, true}) {
+                g.config.compiled = compiled;
+                Counted.COUNTER = 0;
+                Assert.assertTrue(g.generate(Counted.class).x >= 5);
+                Assert.assertTrue(Counted.COUNTER >= 5);
+            }
+        }
+    }
+
+    @Test
+    public void testCompiled() throws Exception {
+        ObjectGenerator g = new ObjectGenerator();
+        g.config.compiled = true;
+        g.config.fieldOverrides.add(MySubSubObject.class, "dexterity", () -> "hahaha");
+        MyObject2 a = g.generate(MyObject2.class);
+        Assert.assertNotNull(a.getId());
+        Assert.assertNotNull(a.getName());
+        Assert.assertNotNull(a.getCount());
+        Assert.assertNotNull(a.getLength());
+        Assert.assertNotNull(a.getColor());
+        Assert.assertNotNull(a.getDate());
+        Assert.assertNotNull(a.getSub().getStrength());
+        Assert.assertEquals("hahaha", a.getSub().getSubSub().getDexterity());
+
+        Room room = g.generate(Room.class);
+        Assert.assertNotNull(room.getName());
+        Assert.assertNotNull(room.getChairs());
+    }
+
+    @Test
+    public void testValueProviders() throws Exception {
+        for (boolean compiled : new boolean[]{false, true}) {
+            ObjectGenerator g = new ObjectGenerator();
+            g.config.compiled = compiled;
+            Assert.assertFalse(g.isBaseType(UUID.class));
+            g.config.valueProviders
+                    .add(UUID.class, gen -> new UUID(gen.nextLong(), gen.nextLong()))
+                    .add(byte[].class, gen -> new byte[]{(byte) gen.nextInt(0, 100)})
+                    .add(int.class, gen -> 42)
+                    .add(BigInteger.class, gen -> BigInteger.valueOf(gen.nextLong()));
+            Assert.assertTrue(g.isBaseType(UUID.class));
+            Assert.assertNotNull(g.random(UUID.class));
+            Token token = g.generate(Token.class);
+            Assert.assertNotNull(token.uuid);
+            Assert.assertEquals(1, token.bytes.length);
+            Assert.assertEquals(42, token.count);
+            Assert.assertNotNull(token.big);
+
+            g.config.valueProviders.reset();
+            Assert.assertFalse(g.isBaseType(UUID.class));
+            Assert.assertTrue(ValueProviders.isBuiltIn(int.class, g.config.valueProviders.get(int.class)));
+        }
+    }
+
+    @Test
+    public void testTypeOverride() throws Exception {
+        for (boolean compiled : new boolean[]{false, true}) {
+            ObjectGenerator g = new ObjectGenerator();
+            g.config.compiled = compiled;
+            Chair pooled = new Chair();
+            g.config.fieldOverrides.add(Chair.class, () -> pooled);
+            Catalog catalog = g.generate(Catalog.class);
+            Assert.assertSame(pooled, catalog.featured);
+            Assert.assertFalse(catalog.chairs.isEmpty());
+            for (Chair chair : catalog.chairs) {
+                Assert.assertSame(pooled, chair);
+            }
+            for (Chair chair : catalog.byName.values()) {
+                Assert.assertSame(pooled, chair);
+            }
+            Assert.assertEquals(Collections.singleton(pooled), catalog.stock.keySet());
+
+            g.config.fieldOverrides.reset();
+            Assert.assertNotSame(pooled, g.generate(Catalog.class).featured);
+        }
+    }
+
+    private static ObjectGenerator parallelGenerator(boolean compiled) {
+        GeneratorConfig config = new GeneratorConfig();
+        config.seed = 42L;
+        ObjectGenerator g = new ObjectGenerator(config);
+        g.config.compiled = compiled;
+        g.config.parallelCollections = true;
+        g.config.parallelCollectionThreshold = 8;
+        g.config.valueProviders.add(UUID.class, r -> new UUID(r.nextLong(), r.nextLong()));
+        g.config.DEFAULT_SET_SIZE_MIN = 200;
+        g.config.DEFAULT_SET_SIZE_MAX = 200;
+        return g;
+    }
+
+    private static List<String> titles(Library library) {
+        List<String> titles = new ArrayList<>();
+        for (Book book : library.books) {
+            titles.add(book.title);
+        }
+        return titles;
+    }
+
+    @Test
+    public void testParallelCollections() throws Exception {
+        for (boolean compiled : new boolean[]{false, true}) {
+            ObjectGenerator g = parallelGenerator(compiled);
+            Library library = g.generate(Library.class);
+            Assert.assertEquals(200, library.books.size());
+            Assert.assertEquals(200, library.index.size());
+            for (Book book : library.books) {
+                Assert.assertSame(library, book.library);
+            }
+            for (Book book : library.index.values()) {
+                Assert.assertSame(library, book.library);
+            }
+            Assert.assertEquals(titles(library), titles(parallelGenerator(compiled).generate(Library.class)));
+
+            g.config.budgetMaxObjects = 50;
+            library = g.generate(Library.class);
+            Assert.assertTrue(library.books.size() < 200);
+            Assert.assertTrue(library.index.isEmpty());
+        }
+    }
+
 }
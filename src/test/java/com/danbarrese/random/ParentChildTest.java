@@ -15,7 +15,10 @@
  */
 package com.danbarrese.random;
 
+import com.danbarrese.Child;
 import com.danbarrese.Parent;
+import com.danbarrese.random.config.CyclePolicy;
+import org.junit.Assert;
 import org.junit.Test;
 
 public class ParentChildTest {
@@ -28,4 +31,56 @@ public class ParentChildTest {
         System.out.println(o);
     }
 
+    @Test
+    public void testCyclePolicies() throws Exception {
+        ObjectGenerator g = new ObjectGenerator();
+        Parent reused = g.generate(Parent.class);
+        Assert.assertSame(reused, reused.getChild().getParent());
+
+        g.config.cyclePolicy = CyclePolicy.NULL;
+        Parent nulled = g.generate(Parent.class);
+        Assert.assertNotNull(nulled.getChild());
+        Assert.assertNull(nulled.getChild().getParent());
+
+        g.config.cyclePolicy = CyclePolicy.MAX_DEPTH;
+        g.config.cycleMaxDepth = 5;
+        Parent deep = g.generate(Parent.class);
+        Child child = deep.getChild();
+        Assert.assertNotSame(deep, child.getParent());
+        Assert.assertNotNull(child.getParent().getChild());
+        Assert.assertNotNull(child.getParent().getChild().getParent());
+        Assert.assertNull(child.getParent().getChild().getParent().getChild());
+    }
+
+    @Test
+    public void testObjectStack() throws Exception {
+        ObjectStack stack = new ObjectStack();
+        Parent outer = new Parent();
+        Parent inner = new Parent();
+        stack.push(outer);
+        stack.push(new Child());
+        stack.push(inner);
+        Assert.assertSame(inner, stack.nearest(Parent.class));
+        stack.pop();
+        Assert.assertSame(outer, stack.nearest(Parent.class));
+        stack.removeLast();
+        Assert.assertNull(stack.nearest(Parent.class));
+        Assert.assertNotNull(stack.nearest(Child.class));
+        stack.clear();
+        Assert.assertNull(stack.nearest(Child.class));
+
+        for (int i = 0; i < ObjectStack.INDEX_DEPTH * 2; i++) {
+            stack.push(new Parent());
+            stack.push(new Child());
+        }
+        stack.push(inner);
+        Assert.assertSame(inner, stack.nearest(Parent.class));
+        stack.pop();
+        Parent top = (Parent) stack.toArray()[1];
+        Assert.assertSame(top, stack.nearest(Parent.class));
+        stack.addLast(outer);
+        Assert.assertSame(top, stack.nearest(Parent.class));
+        Assert.assertNull(stack.nearest(String.class));
+    }
+
 }
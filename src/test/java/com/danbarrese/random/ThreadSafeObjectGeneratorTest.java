@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random;
+
+import com.danbarrese.House;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ThreadSafeObjectGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int PER_THREAD = 10000;
+
+    @Test
+    public void generateFromManyThreads() throws Exception {
+        ObjectGenerator g = new ObjectGenerator();
+        g.config.threadSafe = true;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < PER_THREAD; i++) {
+                        ids.add(g.nextId(House.class));
+                        if (i % 100 == 0) {
+                            Assert.assertNotNull(g.generate(House.class).getAddress());
+                            Assert.assertNotNull(g.randomDateInLastNDays(10));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(THREADS * PER_THREAD, ids.size());
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random;
+
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WeightedChooserTest {
+
+    @Test
+    public void aliasTableMatchesWeights() throws Exception {
+        double[] weights = {0.5, 0.25, 0.125, 0.0, 0.125};
+        AliasTable table = new AliasTable(weights);
+        int[] counts = new int[weights.length];
+        int n = 1 << 16;
+        for (int i = 0; i < n; i++) {
+            counts[table.pick((i + 0.5) / n)]++;
+        }
+        for (int i = 0; i < weights.length; i++) {
+            Assert.assertEquals(weights[i], counts[i] / (double) n, 1e-4);
+        }
+    }
+
+    @Test
+    public void choosesEveryOperation() throws Exception {
+        WeightedCallableChooser<String> chooser = new WeightedCallableChooser<>(new ObjectGenerator());
+        chooser.add(new WeightedCallable<>(0.75, () -> "a"));
+        chooser.add(new WeightedCallable<>(0.25, () -> "b"));
+        int a = 0;
+        for (int i = 0; i < 10000; i++) {
+            if ("a".equals(chooser.doRandomOperation())) {
+                a++;
+            }
+        }
+        Assert.assertEquals(7500, a, 300);
+
+        WeightedFunctionChooser<Integer, Integer> functions = new WeightedFunctionChooser<>(new ObjectGenerator());
+        functions.add(new WeightedFunction<>(1.0, x -> x + 1));
+        Assert.assertEquals(Integer.valueOf(2), functions.doRandomFunction(1));
+        functions.set(0, new WeightedFunction<>(1.0, x -> x * 10));
+        Assert.assertEquals(Integer.valueOf(10), functions.doRandomFunction(1));
+    }
+
+    @Test
+    public void snapshotIsReusedUntilTheListChanges() throws Exception {
+        WeightedCallableChooser<String> chooser = new WeightedCallableChooser<>(new ObjectGenerator());
+        chooser.add(new WeightedCallable<>(1.0, () -> "a"));
+        ImmutableWeightedCallableChooser<String> snapshot = chooser.snapshot();
+        for (WeightedCallable<String> c : chooser) {
+            Assert.assertNotNull(c);
+        }
+        chooser.doRandomOperation();
+        Assert.assertSame(snapshot, chooser.snapshot());
+
+        chooser.set(0, new WeightedCallable<>(1.0, () -> "b"));
+        Assert.assertEquals("b", chooser.doRandomOperation());
+        chooser.add(new WeightedCallable<>(0.0, () -> "c"));
+        Assert.assertEquals(2, chooser.snapshot().size());
+        Assert.assertEquals("a", snapshot.doRandomOperation());
+
+        chooser.subList(0, 1).set(0, new WeightedCallable<>(1.0, () -> "d"));
+        Assert.assertEquals("d", chooser.doRandomOperation());
+        chooser.subList(0, 2).subList(0, 1).set(0, new WeightedCallable<>(1.0, () -> "e"));
+        Assert.assertEquals("e", chooser.doRandomOperation());
+        chooser.subList(1, 2).clear();
+        Assert.assertEquals(1, chooser.snapshot().size());
+    }
+
+    @Test
+    public void builder() throws Exception {
+        ImmutableWeightedFunctionChooser<Integer, Integer> chooser = ImmutableWeightedFunctionChooser
+                .<Integer, Integer>builder(new ObjectGenerator())
+                .add(0.5, x -> x + 1)
+                .add(0.5, x -> x + 1)
+                .build();
+        Assert.assertEquals(2, chooser.size());
+        Assert.assertEquals(Integer.valueOf(2), chooser.doRandomFunction(1));
+        try {
+            ImmutableWeightedCallableChooser.<String>builder(new ObjectGenerator()).add(-0.5, () -> "a").build();
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void weightsNeedNotSumToOne() throws Exception {
+        ImmutableWeightedCallableChooser<String> chooser = ImmutableWeightedCallableChooser
+                .<String>builder(new ObjectGenerator())
+                .add(0.1, () -> "a")
+                .add(0.2, () -> "b")
+                .add(0.0, () -> "c")
+                .build();
+        int[] counts = new int[3];
+        for (int index : chooser.sampleIndexes(new int[30000])) {
+            counts[index]++;
+        }
+        Assert.assertEquals(10000, counts[0], 500);
+        Assert.assertEquals(20000, counts[1], 500);
+        Assert.assertEquals(0, counts[2]);
+    }
+
+    @Test
+    public void doRandomOperations() throws Exception {
+        WeightedCallableChooser<String> chooser = new WeightedCallableChooser<>(new ObjectGenerator());
+        chooser.add(new WeightedCallable<>(3, () -> "a"));
+        chooser.add(new WeightedCallable<>(1, () -> "b"));
+        List<String> results = chooser.doRandomOperations(1000);
+        Assert.assertEquals(1000, results.size());
+        Assert.assertTrue(results.contains("a"));
+        Assert.assertTrue(results.contains("b"));
+        Assert.assertTrue(chooser.doRandomOperations(0).isEmpty());
+
+        WeightedFunctionChooser<Integer, Integer> functions = new WeightedFunctionChooser<>(new ObjectGenerator());
+        functions.add(new WeightedFunction<>(2, x -> x + 1));
+        Assert.assertEquals(Collections.nCopies(300, 2), functions.doRandomFunctions(1, 300));
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random.benchmark;
+
+import com.danbarrese.random.ObjectGenerator;
+import com.danbarrese.random.config.GeneratorConfig;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost per object of generating many small objects one call at a time, or in one batch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchBenchmark {
+
+    private static final int N = 1000;
+
+    public static class Point {
+        private int x;
+        private int y;
+    }
+
+    @Param({"false", "true"})
+    public boolean compiled;
+
+    private ObjectGenerator generator;
+    private Point[] points;
+
+    @Setup
+    public void setup() {
+        GeneratorConfig config = new GeneratorConfig();
+        config.seed = 42L;
+        config.compiled = compiled;
+        generator = new ObjectGenerator(config);
+        points = new Point[N];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public Point[] generateEach() {
+        for (int i = 0; i < N; i++) {
+            points[i] = generator.generate(Point.class);
+        }
+        return points;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public Point[] generateBatch() {
+        return generator.generateBatch(Point.class, points);
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random.benchmark;
+
+import com.danbarrese.random.BaseGenerator;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of generating dates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DateBenchmark {
+
+    private final BaseGenerator generator = new BaseGenerator();
+
+    @Benchmark
+    public Date randomDate() {
+        return generator.randomDate();
+    }
+
+    @Benchmark
+    public Date randomDateBetween() {
+        return generator.randomDate("2000-01-01 00:00:00", "2020-12-31 23:59:59");
+    }
+
+    @Benchmark
+    public Date randomDateInLastNDays() {
+        return generator.randomDateInLastNDays(30);
+    }
+
+    @Benchmark
+    public Instant randomInstant() {
+        return generator.randomInstant();
+    }
+
+    @Benchmark
+    public LocalDate randomLocalDate() {
+        return generator.randomLocalDate();
+    }
+
+}
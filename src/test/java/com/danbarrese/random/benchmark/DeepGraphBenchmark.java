@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random.benchmark;
+
+import com.danbarrese.random.ObjectGenerator;
+import com.danbarrese.random.ObjectStack;
+import com.danbarrese.random.config.CyclePolicy;
+import com.danbarrese.random.config.GeneratorConfig;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of generating a chain of nodes {@code depth} deep, where every level looks up its ancestors, with the ancestry
+ * kept in a plain {@link ArrayDeque} (scanned linearly) or in an {@link ObjectStack}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeepGraphBenchmark {
+
+    @Param({"10", "100", "500"})
+    public int depth;
+
+    @Param({"false", "true"})
+    public boolean indexed;
+
+    private Generator generator;
+
+    @Setup
+    public void setup() {
+        GeneratorConfig config = new GeneratorConfig();
+        config.cyclePolicy = CyclePolicy.MAX_DEPTH;
+        config.cycleMaxDepth = depth;
+        generator = new Generator(config);
+    }
+
+    @Benchmark
+    public Node generateChain() {
+        return generator.generateChain(indexed);
+    }
+
+    public static class Node {
+        public Node next;
+        public Leaf leaf;
+        public int value;
+    }
+
+    public static class Leaf {
+        public int value;
+    }
+
+    private static class Generator extends ObjectGenerator {
+
+        Generator(GeneratorConfig config) {
+            super(config);
+        }
+
+        Node generateChain(boolean indexed) {
+            return generate(Node.class, indexed ? new ObjectStack() : new ArrayDeque<>(), null, null);
+        }
+
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random.benchmark;
+
+import com.danbarrese.random.BaseGenerator;
+import com.danbarrese.random.Dictionary;
+import com.danbarrese.random.config.GeneratorConfig;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of loading and picking words from each of the bundled dictionaries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DictionaryBenchmark {
+
+    @Param({"dict_250.txt", "dict_1000.txt", "dict_3000.txt", "dict_60000.txt"})
+    public String dictionary;
+
+    private BaseGenerator generator;
+
+    @Setup
+    public void setup() {
+        GeneratorConfig config = new GeneratorConfig();
+        config.dictionaryFileName = dictionary;
+        generator = new BaseGenerator(config);
+        generator.randomWords(1);
+    }
+
+    @Benchmark
+    public String oneWord() {
+        return generator.randomWords(1);
+    }
+
+    @Benchmark
+    public String fiveWords() {
+        return generator.randomWords(5);
+    }
+
+    @Benchmark
+    public Dictionary loadText() throws IOException {
+        return Dictionary.load(dictionary);
+    }
+
+    @Benchmark
+    public Dictionary loadBinary() throws IOException {
+        return Dictionary.loadBinary(dictionary);
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random.benchmark;
+
+import com.danbarrese.Chair;
+import com.danbarrese.Room;
+import com.danbarrese.random.ObjectGenerator;
+import com.danbarrese.random.config.GeneratorConfig;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the reflective field loop with compiled populators.
+ * <p>
+ * Run with {@code mvn clean test-compile exec:exec -Pbenchmark -Dbenchmark=ObjectGeneratorBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ObjectGeneratorBenchmark {
+
+    @Param({"false", "true"})
+    public boolean compiled;
+
+    private ObjectGenerator generator;
+
+    @Setup
+    public void setup() {
+        GeneratorConfig config = new GeneratorConfig();
+        config.compiled = compiled;
+        config.DEFAULT_SET_SIZE_MIN = 0;
+        config.DEFAULT_SET_SIZE_MAX = 0;
+        generator = new ObjectGenerator(config);
+    }
+
+    @Benchmark
+    public Chair generateChair() {
+        return generator.generate(Chair.class);
+    }
+
+    @Benchmark
+    public Room generateRoom() {
+        return generator.generate(Room.class);
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random.benchmark;
+
+import com.danbarrese.random.BaseGenerator;
+import com.danbarrese.random.config.GeneratorConfig;
+import com.danbarrese.random.source.RandomSources;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-character cost of {@link BaseGenerator#randomString(int)}, with and without null odds.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RandomStringBenchmark {
+
+    private static final int LENGTH = 25;
+
+    @Param({"0.0", "0.1"})
+    public double chanceOfNull;
+
+    @Param({"JDK", "XOSHIRO256"})
+    public RandomSources source;
+
+    private BaseGenerator generator;
+
+    @Setup
+    public void setup() {
+        GeneratorConfig config = new GeneratorConfig();
+        config.randomSourceFactory = source;
+        config.DEFAULT_CHANCE_OF_NULL_STRING = chanceOfNull;
+        config.DEFAULT_CHANCE_OF_NULL_CHAR = chanceOfNull;
+        generator = new BaseGenerator(config);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LENGTH)
+    public String randomStringPerChar() {
+        return generator.randomString(LENGTH);
+    }
+
+    @Benchmark
+    public Integer randomInt() {
+        return generator.randomInt(0, 100);
+    }
+
+}
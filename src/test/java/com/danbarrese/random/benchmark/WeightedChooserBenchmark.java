@@ -0,0 +1,130 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random.benchmark;
+
+import com.danbarrese.random.ObjectGenerator;
+import com.danbarrese.random.WeightedCallable;
+import com.danbarrese.random.WeightedCallableChooser;
+import com.danbarrese.random.WeightedFunction;
+import com.danbarrese.random.WeightedFunctionChooser;
+import com.danbarrese.random.config.GeneratorConfig;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of a weighted pick as the number of weighted operations grows, one at a time, in batches, and when one
+ * chooser is shared by several threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WeightedChooserBenchmark {
+
+    private static final int BATCH = 1024;
+
+    @Param({"2", "50", "1000"})
+    public int entries;
+
+    private WeightedCallableChooser<Integer> callables;
+    private WeightedFunctionChooser<Integer, Integer> functions;
+    private final int[] indexes = new int[BATCH];
+
+    @Setup
+    public void setup() {
+        ObjectGenerator generator = new ObjectGenerator();
+        callables = new WeightedCallableChooser<>(generator);
+        functions = new WeightedFunctionChooser<>(generator);
+        for (int i = 0; i < entries; i++) {
+            final int value = i;
+            callables.add(new WeightedCallable<>(_probability(i, entries), () -> value));
+            functions.add(new WeightedFunction<>(_probability(i, entries), x -> x + value));
+        }
+    }
+
+    /**
+     * Uneven weights in units of 1/1024.
+     */
+    private static double _probability(int i, int entries) {
+        int units = 1024;
+        return (units / entries + (i < units % entries ? 1 : 0)) / (double) units;
+    }
+
+    @Benchmark
+    public Integer callable() throws Exception {
+        return callables.doRandomOperation();
+    }
+
+    @Benchmark
+    public Integer function() throws Exception {
+        return functions.doRandomFunction(1);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int[] sampleIndexes() {
+        return callables.sampleIndexes(indexes);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<Integer> callableBatch() throws Exception {
+        return callables.doRandomOperations(BATCH);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Integer sharedCallable(Shared shared) throws Exception {
+        return shared.callables.doRandomOperation();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+
+        @Param({"2", "50", "1000"})
+        public int entries;
+
+        private WeightedCallableChooser<Integer> callables;
+
+        @Setup
+        public void setup() {
+            GeneratorConfig config = new GeneratorConfig();
+            config.threadSafe = true;
+            callables = new WeightedCallableChooser<>(new ObjectGenerator(config));
+            for (int i = 0; i < entries; i++) {
+                final int value = i;
+                callables.add(new WeightedCallable<>(_probability(i, entries), () -> value));
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016 Dan Barrese
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.danbarrese.random.source;
+
+import com.danbarrese.random.BaseGenerator;
+import com.danbarrese.random.config.GeneratorConfig;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RandomSourceTest {
+
+    @Test
+    public void valuesAreInRange() throws Exception {
+        for (RandomSources factory : RandomSources.values()) {
+            RandomSource source = factory.create(42L);
+            for (int i = 0; i < 100000; i++) {
+                int n = source.nextInt(7);
+                Assert.assertTrue(factory + " " + n, n >= 0 && n < 7);
+                double d = source.nextDouble();
+                Assert.assertTrue(factory + " " + d, d >= 0.0 && d < 1.0);
+            }
+        }
+    }
+
+    @Test
+    public void sameSeedSameStream() throws Exception {
+        for (RandomSources factory : RandomSources.values()) {
+            RandomSource a = factory.create(42L);
+            RandomSource b = factory.create(42L);
+            for (int i = 0; i < 1000; i++) {
+                Assert.assertEquals(factory.toString(), a.nextLong(), b.nextLong());
+            }
+        }
+    }
+
+    @Test
+    public void splitStreamsDiffer() throws Exception {
+        for (RandomSources factory : RandomSources.values()) {
+            RandomSource parent = factory.create(42L);
+            RandomSource child = parent.split();
+            int same = 0;
+            for (int i = 0; i < 1000; i++) {
+                if (parent.nextLong() == child.nextLong()) {
+                    same++;
+                }
+            }
+            Assert.assertEquals(factory.toString(), 0, same);
+        }
+    }
+
+    @Test
+    public void counterSourceJumps() throws Exception {
+        CounterRandomSource source = new CounterRandomSource(42L);
+        long first = source.nextLong();
+        long second = source.nextLong();
+        Assert.assertEquals(first, source.at(0).nextLong());
+        Assert.assertEquals(second, source.at(1).nextLong());
+    }
+
+    @Test
+    public void generatorUsesConfiguredSource() throws Exception {
+        for (RandomSources factory : RandomSources.values()) {
+            GeneratorConfig config = new GeneratorConfig();
+            config.randomSourceFactory = factory;
+            BaseGenerator g = new BaseGenerator(config);
+            for (int i = 0; i < 10000; i++) {
+                int n = g.randomInt(-10, 10);
+                Assert.assertTrue(n >= -10 && n <= 10);
+                long l = g.randomLong(-1000000000000L, 1000000000000L);
+                Assert.assertTrue(l >= -1000000000000L && l <= 1000000000000L);
+            }
+        }
+    }
+
+}